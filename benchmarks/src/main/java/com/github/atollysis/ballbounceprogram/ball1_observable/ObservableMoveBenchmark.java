@@ -0,0 +1,70 @@
+/**
+ * ObservableMoveBenchmark measures Ball.move() when the View is wired
+ * through Observable/Observer:
+ * 		- 0, 1, 10 and 100 registered observers.
+ * 		- Throughput (ops/us) and sampled latency (us/op).
+ * 		- Run with "-prof gc" for the allocation rate.
+ * 
+ * STYLE NOTES
+ * Lives in the ball1_observable package so it can reach the
+ * package-private Ball, but keeps the modern conventions (JMH needs
+ * annotations and public fields/methods anyway).
+ */
+package com.github.atollysis.ballbounceprogram.ball1_observable;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@SuppressWarnings("deprecation")
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ObservableMoveBenchmark {
+
+	/*
+	 * FIELDS
+	 */
+	private static final int X_LIMIT = 1200;
+	private static final int Y_LIMIT = 700;
+
+	@Param({"0", "1", "10", "100"})
+	public int listeners;
+
+	private Ball ball;
+	private int received;
+
+	/*
+	 * SETUP
+	 */
+	@Setup
+	public void setup() {
+		ball = new Ball();
+		for (int i = 0; i < listeners; i++) {
+			ball.addObserver((obs, arg) -> received++);
+		}
+	}
+
+	/*
+	 * BENCHMARKS
+	 */
+	@Benchmark
+	public int move() {
+		ball.move(X_LIMIT, Y_LIMIT);
+		return ball.getX() + received;
+	}
+
+}
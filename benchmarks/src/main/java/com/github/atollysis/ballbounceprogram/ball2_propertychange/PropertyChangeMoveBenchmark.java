@@ -0,0 +1,73 @@
+/**
+ * PropertyChangeMoveBenchmark measures Ball.move() when the View is
+ * wired through PropertyChangeSupport:
+ * 		- 0, 1, 10 and 100 registered listeners.
+ * 		- Both kinds of listener: PropertyChangeListener ("property")
+ * 			and the allocation-free PositionListener ("position").
+ * 		- Throughput (ops/us) and sampled latency (us/op).
+ * 		- Run with "-prof gc" for the allocation rate.
+ */
+package com.github.atollysis.ballbounceprogram.ball2_propertychange;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PropertyChangeMoveBenchmark {
+
+	/*
+	 * FIELDS
+	 */
+	private static final int X_LIMIT = 1200;
+	private static final int Y_LIMIT = 700;
+
+	@Param({"0", "1", "10", "100"})
+	public int listeners;
+
+	@Param({"property", "position"})
+	public String listenerKind;
+
+	private Ball ball;
+	private int received;
+
+	/*
+	 * SETUP
+	 */
+	@Setup
+	public void setup() {
+		ball = new Ball();
+		for (int i = 0; i < listeners; i++) {
+			if (listenerKind.equals("property")) {
+				ball.addPropertyChangeListener(evt -> received++);
+			} else {
+				ball.addPositionListener((x, y) -> received++);
+			}
+		}
+	}
+
+	/*
+	 * BENCHMARKS
+	 */
+	@Benchmark
+	public int move() {
+		ball.move(X_LIMIT, Y_LIMIT);
+		return ball.getX() + received;
+	}
+
+}
@@ -0,0 +1,101 @@
+/**
+ * BallFootprintBenchmark compares the eager Ball (seven properties per
+ * ball) with the compact LazyBall (ints and shared WorldLimits):
+ * 		- create(): builds a population of 1 000 balls; with "-prof gc",
+ * 			gc.alloc.rate.norm / 1000 is the footprint of one ball.
+ * 		- moveAll(): moves the whole population once (not bound).
+ * 		- Average time per op (us/op).
+ * 
+ * RUNNING NOTES
+ * Properties can be created without starting the JavaFX toolkit, so no
+ * Stage (and no display) is needed.
+ */
+package com.github.atollysis.ballbounceprogram.ball3_javafx;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BallFootprintBenchmark {
+
+	/*
+	 * FIELDS
+	 */
+	private static final int X_LIMIT = 1200;
+	private static final int Y_LIMIT = 700;
+	private static final int POPULATION = 1000;
+	private static final String LAZY = "lazy";
+
+	@Param({"ball", "lazy"})
+	public String model;
+
+	private final WorldLimits limits = new WorldLimits();
+	private Ball[] balls;
+	private LazyBall[] lazyBalls;
+
+	/*
+	 * SETUP
+	 */
+	@Setup
+	public void setup() {
+		limits.setXLimit(X_LIMIT);
+		limits.setYLimit(Y_LIMIT);
+		balls = new Ball[POPULATION];
+		lazyBalls = new LazyBall[POPULATION];
+		create();
+	}
+
+	/*
+	 * BENCHMARKS
+	 */
+	@Benchmark
+	public Object create() {
+		if (LAZY.equals(model)) {
+			for (int i = 0; i < POPULATION; i++) {
+				lazyBalls[i] = new LazyBall(limits);
+			}
+			return lazyBalls;
+		}
+		for (int i = 0; i < POPULATION; i++) {
+			var ball = new Ball();
+			ball.setXLimit(X_LIMIT);
+			ball.setYLimit(Y_LIMIT);
+			balls[i] = ball;
+		}
+		return balls;
+	}
+
+	@Benchmark
+	public int moveAll() {
+		var sum = 0;
+		if (LAZY.equals(model)) {
+			for (var ball : lazyBalls) {
+				ball.move();
+				sum += ball.getX();
+			}
+		} else {
+			for (var ball : balls) {
+				ball.move();
+				sum += ball.xProperty().get();
+			}
+		}
+		return sum;
+	}
+
+}
@@ -0,0 +1,86 @@
+/**
+ * PropertyBindingMoveBenchmark measures Ball.move() when the View is
+ * wired through JavaFX properties:
+ * 		- 0, 1, 10 and 100 ChangeListeners on xProperty().
+ * 		- With and without a Circle bound to x, y and size (BallView now
+ * 			only binds size and interpolates the position).
+ * 		- Throughput (ops/us) and sampled latency (us/op).
+ * 		- Run with "-prof gc" for the allocation rate.
+ * 
+ * RUNNING NOTES
+ * A Circle can be created and bound without starting the JavaFX
+ * toolkit, so no Stage (and no display) is needed.
+ */
+package com.github.atollysis.ballbounceprogram.ball3_javafx;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javafx.scene.shape.Circle;
+
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PropertyBindingMoveBenchmark {
+
+	/*
+	 * FIELDS
+	 */
+	private static final int X_LIMIT = 1200;
+	private static final int Y_LIMIT = 700;
+
+	@Param({"0", "1", "10", "100"})
+	public int listeners;
+
+	@Param({"false", "true"})
+	public boolean boundCircle;
+
+	private Ball ball;
+	private Circle circle;
+	private int received;
+
+	/*
+	 * SETUP
+	 */
+	@Setup
+	public void setup() {
+		ball = new Ball();
+		ball.setXLimit(X_LIMIT);
+		ball.setYLimit(Y_LIMIT);
+		for (int i = 0; i < listeners; i++) {
+			ball.xProperty().addListener((obs, oldVal, newVal) -> received++);
+		}
+		if (boundCircle) {
+			circle = new Circle();
+			circle.centerXProperty().bind(ball.xProperty());
+			circle.centerYProperty().bind(ball.yProperty());
+			circle.radiusProperty().bind(ball.sizeProperty());
+		}
+	}
+
+	/*
+	 * BENCHMARKS
+	 */
+	@Benchmark
+	public double move() {
+		ball.move();
+		// Reading the bound value forces the binding to be re-evaluated
+		var centerX = boundCircle ? circle.getCenterX() : 0;
+		return ball.xProperty().get() + centerX + received;
+	}
+
+}
@@ -0,0 +1,75 @@
+/**
+ * StepKernelBenchmark compares BallWorld.step() with the scalar and the
+ * SIMD (Vector API) move loop:
+ * 		- 1 000, 100 000 and 1 000 000 balls, without collisions.
+ * 		- Average time per step (us/op); divide by "balls" for the
+ * 			cost per ball.
+ * The forked JVM gets "--add-modules jdk.incubator.vector", otherwise
+ * both variants would run the scalar loop.
+ * 
+ * STYLE NOTES
+ * Lives in the engine package like the code it measures, and keeps the
+ * conventions of the other benchmarks.
+ */
+package com.github.atollysis.ballbounceprogram.engine;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@State(Scope.Thread)
+public class StepKernelBenchmark {
+
+	/*
+	 * FIELDS
+	 */
+	private static final int X_LIMIT = 1920;
+	private static final int Y_LIMIT = 1080;
+	private static final int SIZE = 10;
+	private static final long SEED = 42;
+
+	@Param({"1000", "100000", "1000000"})
+	public int balls;
+
+	@Param({"false", "true"})
+	public boolean vectorized;
+
+	private BallWorld world;
+
+	/*
+	 * SETUP
+	 */
+	@Setup
+	public void setup() {
+		world = Scenes.random(X_LIMIT, Y_LIMIT, balls, SIZE, SEED);
+		world.setVectorized(vectorized);
+		if (vectorized && !world.isVectorized()) {
+			throw new IllegalStateException("The Vector API is not available in this JVM");
+		}
+	}
+
+	/*
+	 * BENCHMARKS
+	 */
+	@Benchmark
+	public long step() {
+		world.step();
+		return world.getTick();
+	}
+
+}
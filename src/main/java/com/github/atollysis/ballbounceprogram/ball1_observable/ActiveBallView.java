@@ -0,0 +1,183 @@
+/**
+ * ActiveBallView is an alternative View component that renders actively
+ * instead of waiting for the RepaintManager:
+ * 		- A heavyweight Canvas with a BufferStrategy (page flipping where
+ * 			the platform supports it, blitting otherwise).
+ * 		- Its own "render" thread draws a whole frame into the back
+ * 			buffer and shows it, once per display refresh, so frame
+ * 			pacing and latency do not depend on how Swing coalesces
+ * 			repaint() calls.
+ * 		- Like BallView, it gets the position through a
+ * 			LatestValueMailbox (taken once per frame) and blits sprites
+ * 			(SpriteCache).
+ * 		- Works inside the normal window, or in full-screen exclusive
+ * 			mode (see BallController).
+ * 
+ * STYLE NOTES
+ * Since Observable/Observer is deprecated, the class is
+ * formatted using older conventions, like:
+ * 		- Required "this" keyword
+ * 		- Constructor initialization of fields
+ * 		- Implements Runnable for its thread
+ * 		- Magic numbers
+ */
+package com.github.atollysis.ballbounceprogram.ball1_observable;
+
+import java.awt.Canvas;
+import java.awt.Color;
+import java.awt.DisplayMode;
+import java.awt.Graphics;
+import java.awt.GraphicsEnvironment;
+import java.awt.Point;
+import java.awt.Toolkit;
+import java.awt.image.BufferStrategy;
+import java.util.Observable;
+import java.util.Observer;
+
+import com.github.atollysis.ballbounceprogram.engine.LatestValueMailbox;
+import com.github.atollysis.ballbounceprogram.engine.TickMetrics;
+
+@SuppressWarnings("deprecation")
+class ActiveBallView extends Canvas implements Observer, Runnable {
+	
+	/*
+	 * FIELDS
+	 */
+	private static final long serialVersionUID = 1L;
+	private int size;
+	// Positions: x in the high 32 bits, y in the low 32 bits
+	private LatestValueMailbox positions;
+	private TickMetrics metrics;
+	private SpriteCache sprites;
+	private boolean antialias;
+	private long frameNanos;
+	private Thread renderer;
+	private volatile boolean rendering;
+
+	/*
+	 * CONSTRUCTOR
+	 */
+	public ActiveBallView(Ball model, TickMetrics metrics){
+		this.metrics = metrics;
+		this.size = model.getSize();
+		this.positions = new LatestValueMailbox(pack(1, 1), metrics);
+		this.sprites = new SpriteCache(16);
+		this.antialias = Boolean.getBoolean("ballbounce.antialias");
+		this.frameNanos = 1000000000L / refreshRate();
+		this.setBackground(Color.BLACK);
+		// Frames come from the render thread, never from paint()
+		this.setIgnoreRepaint(true);
+	}
+	
+	/*
+	 * RENDER LOOP CONTROL
+	 * start() needs the Canvas to be displayable (its window shown).
+	 */
+	public void start() {
+		// Front + back buffer
+		this.createBufferStrategy(2);
+		this.rendering = true;
+		this.renderer = new Thread(this, "render");
+		this.renderer.setDaemon(true);
+		this.renderer.start();
+	}
+	
+	public void stop() throws InterruptedException {
+		this.rendering = false;
+		if (this.renderer != null) {
+			this.renderer.join();
+		}
+	}
+
+	/*
+	 * OBSERVER METHOD
+	 * Called by Observable class (if registered), on the simulation
+	 * thread; the render thread picks the position up.
+	 */
+	public void update(Observable obs, Object args){
+		long start = System.nanoTime();
+		Point newPosition = (Point) args;
+		this.positions.offer(pack(newPosition.x, newPosition.y));
+		this.metrics.recordDispatch(System.nanoTime() - start);
+	}
+	
+	/*
+	 * RENDER LOOP (render thread only)
+	 * One frame per refresh period; a late frame does not try to catch up.
+	 */
+	public void run() {
+		BufferStrategy strategy = this.getBufferStrategy();
+		long nextFrame = System.nanoTime();
+		while (this.rendering) {
+			long start = System.nanoTime();
+			this.render(strategy, this.positions.take());
+			this.metrics.recordPaint(System.nanoTime() - start);
+			
+			nextFrame += this.frameNanos;
+			long now = System.nanoTime();
+			if (now - nextFrame > this.frameNanos) {
+				nextFrame = now;
+			}
+			long wait = nextFrame - now;
+			if (wait > 0) {
+				try {
+					Thread.sleep(wait / 1000000, (int) (wait % 1000000));
+				} catch (InterruptedException e) {
+					return;
+				}
+			}
+		}
+	}
+	
+	/*
+	 * The usual BufferStrategy loop: redraw while the buffer contents
+	 * are restored or lost (e.g. after a display mode change).
+	 */
+	private void render(BufferStrategy strategy, long position) {
+		do {
+			do {
+				Graphics g = strategy.getDrawGraphics();
+				try {
+					g.setColor(this.getBackground());
+					g.fillRect(0, 0, this.getWidth(), this.getHeight());
+					this.sprites.draw(
+							g,
+							unpackX(position),
+							unpackY(position),
+							this.size,
+							Color.RED,
+							this.antialias);
+				} finally {
+					g.dispose();
+				}
+			} while (strategy.contentsRestored());
+			strategy.show();
+		} while (strategy.contentsLost());
+		// Flush the pipeline so the frame shows now (matters on X11)
+		Toolkit.getDefaultToolkit().sync();
+	}
+	
+	private static int refreshRate() {
+		DisplayMode mode = GraphicsEnvironment.getLocalGraphicsEnvironment()
+				.getDefaultScreenDevice()
+				.getDisplayMode();
+		int rate = mode.getRefreshRate();
+		return rate == DisplayMode.REFRESH_RATE_UNKNOWN ? 60 : rate;
+	}
+	
+	/*
+	 * PACKING HELPERS
+	 */
+	private static long pack(int x, int y) {
+		return ((long) x << 32) | (y & 0xFFFFFFFFL);
+	}
+	
+	private static int unpackX(long position) {
+		return (int) (position >> 32);
+	}
+	
+	private static int unpackY(long position) {
+		return (int) position;
+	}
+	
+}
@@ -4,6 +4,8 @@
  * 		- setChanged() - sets changed field to true
  * 		- notifyObservers() - updates View
  * 		- notifyObservers(Object arg) updates View (with information)
+ * The Point handed to observers is reused between moves, so observers
+ * should copy it if they need to keep an old position.
  * 
  * STYLE NOTES
  * Since Observable/Observer is deprecated, the class is
@@ -25,6 +27,7 @@ class Ball extends Observable {
 	 */
 	// Instance
 	private int x, y, dX, dY, size;
+	private Point position;
 
 	/*
 	 * CONSTRUCTORS
@@ -35,6 +38,7 @@ class Ball extends Observable {
 		this.dX = dX;
 		this.dY = dY;
 		this.size = size;
+		this.position = new Point(x, y);
 	}
 	
 	public Ball() {
@@ -74,10 +78,9 @@ class Ball extends Observable {
 		 * Set this Observable as having changed, then call
 		 * update() on its (registered) observers with the new value.
 		 */
+		this.position.setLocation(this.x, this.y);
 		this.setChanged();
-		this.notifyObservers(new Point(
-				this.x,
-				this.y));
+		this.notifyObservers(this.position);
 	}
 	
 	// Helper
@@ -4,6 +4,10 @@
  * 		- Instantiate Model + View
  * 		- Connect View to Model (adding as an observer)
  * 		- Connect user input to Model methods
+ * 		- Publish tick/paint timings over JMX (TickMetrics)
+ * 		- Pick the View: BallView (passive painting through the
+ * 			RepaintManager) or ActiveBallView (its own render loop),
+ * 			optionally in full-screen exclusive mode
  * 
  * STYLE NOTES
  * Since Observable/Observer is deprecated, the class is
@@ -14,14 +18,23 @@
  * 		- (NOT ADDED) outerClass = this; for anonymous classes
  * 			referencing outer class fields
  * 		- Magic numbers
+ * 		- java.util.Timer (a background thread) runs the Model, so
+ * 			a slow paint on the Event Dispatch Thread does not slow the
+ * 			simulation (and vice versa)
  */
 package com.github.atollysis.ballbounceprogram.ball1_observable;
 
 import java.awt.BorderLayout;
+import java.awt.Component;
 import java.awt.FlowLayout;
 import java.awt.Font;
+import java.awt.GraphicsDevice;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.util.Timer;
+import java.util.TimerTask;
 
 import javax.swing.BorderFactory;
 import javax.swing.BoxLayout;
@@ -29,7 +42,8 @@ import javax.swing.JButton;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
-import javax.swing.Timer;
+
+import com.github.atollysis.ballbounceprogram.engine.TickMetrics;
 
 @SuppressWarnings("deprecation")
 class BallController extends JFrame {
@@ -40,8 +54,13 @@ class BallController extends JFrame {
 	private static final long serialVersionUID = 1L;
 	// Back-end
 	private Ball model;
-	private BallView view;
-	private Timer timer;
+	private Component view;
+	private ActiveBallView activeView;
+	private Timer simulation;
+	private TimerTask ticking;
+	private TickMetrics metrics;
+	// View size, handed from the EDT to the simulation thread
+	private volatile int xLimit, yLimit;
 	// GUI
 	private JButton btnStep;
 	private JButton btnPlay;
@@ -49,21 +68,43 @@ class BallController extends JFrame {
 	/*
 	 * CONSTRUCTOR
 	 */
-	public BallController() {
+	public BallController(boolean active, boolean fullScreen) {
+		this.metrics = TickMetrics.register("ball1_observable", 5);
 		this.model = new Ball();
-		this.view = new BallView(model);
-		this.model.addObserver(view);
+		if (active) {
+			this.activeView = new ActiveBallView(model, metrics);
+			this.model.addObserver(this.activeView);
+			this.view = this.activeView;
+		} else {
+			BallView passiveView = new BallView(model, metrics);
+			this.model.addObserver(passiveView);
+			this.view = passiveView;
+		}
 		
-		// Anonymous class for Timer
-		this.timer = new Timer(
-				5, // usually 16ms = 60fps; 5ms = 200FPS (or as close as it can)
-				new ActionListener() {
-			public void actionPerformed(ActionEvent e) {
-				model.move(view.getWidth(), view.getHeight());
+		// Background (daemon) thread for the simulation
+		this.simulation = new Timer("simulation", true);
+		
+		// Registered before setupLayout() shows (and sizes) the view
+		this.view.addComponentListener(new ComponentAdapter() {
+			public void componentResized(ComponentEvent e) {
+				xLimit = view.getWidth();
+				yLimit = view.getHeight();
 			}
 		});
 		
+		// No decorations in full screen (only allowed before it is shown)
+		GraphicsDevice device = this.getGraphicsConfiguration().getDevice();
+		boolean exclusive = fullScreen && device.isFullScreenSupported();
+		this.setUndecorated(exclusive);
+		
 		this.setupLayout();
+		
+		if (exclusive) {
+			device.setFullScreenWindow(this);
+		}
+		if (this.activeView != null) {
+			this.activeView.start();
+		}
 
 		/*
 		 * USER INTERACTIONS
@@ -71,16 +112,32 @@ class BallController extends JFrame {
 		 */
 		this.btnStep.addActionListener(new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
-				model.move(view.getWidth(), view.getHeight());
+				simulation.schedule(new TimerTask() {
+					public void run() {
+						model.move(xLimit, yLimit);
+					}
+				}, 0);
 			}
 		});
 		
 		this.btnPlay.addActionListener(new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
-				if (timer.isRunning()) {
-					timer.stop();
+				if (ticking != null) {
+					ticking.cancel();
+					ticking = null;
 				} else {
-					timer.start();
+					metrics.resume();
+					ticking = new TimerTask() {
+						public void run() {
+							metrics.tick();
+							long start = System.nanoTime();
+							model.move(xLimit, yLimit);
+							metrics.recordMove(System.nanoTime() - start);
+						}
+					};
+					// usually 16ms = 60fps; 5ms = 200FPS (or as close as it can)
+					// fixed delay: a late tick is not followed by a burst of catch-up ticks
+					simulation.schedule(ticking, 0, 5);
 				}
 			}
 		});
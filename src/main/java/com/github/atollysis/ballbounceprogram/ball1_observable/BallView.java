@@ -2,6 +2,19 @@
  * BallView is the View component of the system:
  * 		- Communicates with Model to show data
  * 		- Only shows data, NOT the process
+ * 		- Only repaints where the ball was and where it is now, unless
+ * 			that dirty region covers most of the panel
+ * 		- Blits a pre-rendered sprite (see SpriteCache) instead of
+ * 			rasterizing the oval on every paint; run with
+ * 			-Dballbounce.antialias=true for antialiased sprites
+ * 		- Safe to notify from the simulation thread: the position (x
+ * 			and y packed in one long) goes through a LatestValueMailbox.
+ * 			Only the first update after a drain schedules one on the
+ * 			EDT; later ones just replace the position, so a Model
+ * 			ticking faster than the panel paints does not queue up
+ * 			repaints. The drain only peeks to request the repaint; the
+ * 			paint takes the position, so TickMetrics counts the frames
+ * 			actually shown (and the updates dropped in between)
  * 
  * STYLE NOTES
  * Since Observable/Observer is deprecated, the class is
@@ -19,6 +32,10 @@ import java.util.Observable;
 import java.util.Observer;
 
 import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
+
+import com.github.atollysis.ballbounceprogram.engine.LatestValueMailbox;
+import com.github.atollysis.ballbounceprogram.engine.TickMetrics;
 
 @SuppressWarnings("deprecation")
 class BallView extends JPanel implements Observer {
@@ -28,14 +45,32 @@ class BallView extends JPanel implements Observer {
 	 */
 	private static final long serialVersionUID = 1L;
 	private int size;
-	private Point position;
+	// Positions: x in the high 32 bits, y in the low 32 bits
+	private LatestValueMailbox positions;
+	private Runnable drainer;
+	// Positions last drawn and last repainted for (EDT only)
+	private long drawn;
+	private long requested;
+	private TickMetrics metrics;
+	private SpriteCache sprites;
+	private boolean antialias;
 
 	/*
 	 * CONSTRUCTOR
 	 */
-	public BallView(Ball model){
+	public BallView(Ball model, TickMetrics metrics){
+		this.metrics = metrics;
 		this.size = model.getSize();
-		this.position = new Point(1, 1);
+		this.drawn = pack(1, 1);
+		this.requested = this.drawn;
+		this.positions = new LatestValueMailbox(this.drawn, metrics);
+		this.drainer = new Runnable() {
+			public void run() {
+				BallView.this.drain();
+			}
+		};
+		this.sprites = new SpriteCache(16);
+		this.antialias = Boolean.getBoolean("ballbounce.antialias");
 		this.setBackground(Color.BLACK);
 	}
 
@@ -44,26 +79,90 @@ class BallView extends JPanel implements Observer {
 	 * Called upon repaint() to draw the ball
 	 */
 	public void paint(Graphics g){
+		long start = System.nanoTime();
 		super.paint(g);
-		this.drawBall(g);
+		this.drawn = this.positions.take();
+		if (this.drawn != this.requested) {
+			// Moved since the drain: the clip may cut the ball, so finish it
+			this.requested = this.drawn;
+			this.repaintDirty(unpackX(this.drawn), unpackY(this.drawn), unpackX(this.drawn), unpackY(this.drawn));
+		}
+		this.drawBall(g, this.drawn);
+		this.metrics.recordPaint(System.nanoTime() - start);
 	}
 	
-	private void drawBall(Graphics g) {
-		g.setColor(Color.RED);
-		g.fillOval(
-				this.position.x,
-				this.position.y,
+	private void drawBall(Graphics g, long position) {
+		this.sprites.draw(
+				g,
+				unpackX(position),
+				unpackY(position),
 				this.size,
-				this.size);
+				Color.RED,
+				this.antialias);
 	}
 
 	/*
 	 * OBSERVER METHOD
-	 * Called by Observable class (if registered)
+	 * Called by Observable class (if registered), on the simulation
+	 * thread.
 	 */
 	public void update(Observable obs, Object args){
-		this.position = (Point) args;
-		this.repaint();
+		long start = System.nanoTime();
+		// Copied, since Ball reuses the Point it sends
+		Point newPosition = (Point) args;
+		if (this.positions.offer(pack(newPosition.x, newPosition.y))) {
+			SwingUtilities.invokeLater(this.drainer);
+		}
+		this.metrics.recordDispatch(System.nanoTime() - start);
+	}
+	
+	/*
+	 * DRAIN METHOD
+	 * Runs on the EDT: peeks at the latest position and repaints where
+	 * the ball was drawn and where it is now (paint() takes it).
+	 */
+	private void drain() {
+		long latest = this.positions.peek();
+		if (latest != this.requested) {
+			this.requested = latest;
+			this.repaintDirty(unpackX(this.drawn), unpackY(this.drawn), unpackX(latest), unpackY(latest));
+		}
+	}
+	
+	/*
+	 * DIRTY REGION HELPER
+	 * Repaints the union of the old and new ball bounds
+	 * (plus a 1px margin for rounding at the edge of the oval).
+	 */
+	private void repaintDirty(int oldX, int oldY, int x, int y) {
+		int left = Math.min(oldX, x) - 1;
+		int top = Math.min(oldY, y) - 1;
+		int width = Math.abs(x - oldX) + this.size + 2;
+		int height = Math.abs(y - oldY) + this.size + 2;
+		
+		// Past half of the panel, one full repaint is cheaper
+		long dirtyArea = (long) width * height;
+		long panelArea = (long) this.getWidth() * this.getHeight();
+		if (dirtyArea * 2 >= panelArea) {
+			this.repaint();
+		} else {
+			this.repaint(left, top, width, height);
+		}
+	}
+	
+	/*
+	 * PACKING HELPERS
+	 */
+	private static long pack(int x, int y) {
+		return ((long) x << 32) | (y & 0xFFFFFFFFL);
+	}
+	
+	private static int unpackX(long position) {
+		return (int) (position >> 32);
+	}
+	
+	private static int unpackY(long position) {
+		return (int) position;
 	}
 	
 }
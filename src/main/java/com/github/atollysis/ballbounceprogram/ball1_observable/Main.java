@@ -5,13 +5,28 @@
  * Since Observable/Observer is deprecated, the class is
  * formatted using older conventions, like:
  * 		- Simpler main method
+ * 
+ * RUNNING NOTES
+ * Passing "active" renders through ActiveBallView (BufferStrategy)
+ * instead of repaint(); "fullscreen" does the same in full-screen
+ * exclusive mode.
  */
 package com.github.atollysis.ballbounceprogram.ball1_observable;
 
 class Main {
 
 	public static void main(String[] args) {
-		new BallController();
+		boolean active = false;
+		boolean fullScreen = false;
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals("active")) {
+				active = true;
+			} else if (args[i].equals("fullscreen")) {
+				active = true;
+				fullScreen = true;
+			}
+		}
+		new BallController(active, fullScreen);
 	}
 
 }
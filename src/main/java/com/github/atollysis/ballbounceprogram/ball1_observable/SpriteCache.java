@@ -0,0 +1,124 @@
+/**
+ * SpriteCache keeps pre-rendered ball sprites, so the View blits an
+ * image instead of rasterizing an oval on every paint:
+ * 		- One sprite per size, color and antialiasing setting, rendered
+ * 			once into a translucent image compatible with the screen
+ * 			(a "managed" image, which Java2D keeps in video memory when
+ * 			the pipeline is accelerated).
+ * 		- At most "capacity" sprites are kept; the least recently drawn
+ * 			one is evicted (and its surfaces released) first.
+ * 		- Sprites are dropped when the View moves to a screen with a
+ * 			different GraphicsConfiguration.
+ * Only used from one thread (the Event Dispatch Thread, or the render
+ * thread of an ActiveBallView), so it needs no locking.
+ * 
+ * STYLE NOTES
+ * Since Observable/Observer is deprecated, the class is
+ * formatted using older conventions, like:
+ * 		- Required "this" keyword
+ * 		- Constructor initialization of fields
+ * 		- Anonymous classes
+ * 		- Magic numbers
+ */
+package com.github.atollysis.ballbounceprogram.ball1_observable;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+class SpriteCache {
+	
+	/*
+	 * FIELDS
+	 */
+	private Map<Long, BufferedImage> sprites;
+	private GraphicsConfiguration configuration;
+
+	/*
+	 * CONSTRUCTOR
+	 */
+	public SpriteCache(final int capacity) {
+		// Access order + removeEldestEntry() = least recently used first out
+		this.sprites = new LinkedHashMap<Long, BufferedImage>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			protected boolean removeEldestEntry(Map.Entry<Long, BufferedImage> eldest) {
+				if (this.size() > capacity) {
+					eldest.getValue().flush();
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+	
+	/*
+	 * SERVICE METHODS
+	 */
+	/**
+	 * Draws a ball of the given size and color with its top-left
+	 * corner at (x, y), like g.fillOval(x, y, size, size) would.
+	 */
+	public void draw(Graphics g, int x, int y, int size, Color color, boolean antialias) {
+		if (size <= 0) {
+			return;
+		}
+		g.drawImage(this.sprite((Graphics2D) g, size, color, antialias), x, y, null);
+	}
+	
+	public int getSize() {
+		return this.sprites.size();
+	}
+	
+	public void clear() {
+		Iterator<BufferedImage> it = this.sprites.values().iterator();
+		while (it.hasNext()) {
+			it.next().flush();
+		}
+		this.sprites.clear();
+	}
+	
+	/*
+	 * SPRITE HELPERS
+	 */
+	private BufferedImage sprite(Graphics2D g, int size, Color color, boolean antialias) {
+		GraphicsConfiguration current = g.getDeviceConfiguration();
+		if (current != this.configuration) {
+			this.clear();
+			this.configuration = current;
+		}
+		// Color (ARGB) in the high 32 bits, size and antialiasing below
+		Long key = Long.valueOf(((long) color.getRGB() << 32)
+				| ((((long) size << 1) | (antialias ? 1 : 0)) & 0xFFFFFFFFL));
+		BufferedImage sprite = this.sprites.get(key);
+		if (sprite == null) {
+			sprite = render(current, size, color, antialias);
+			this.sprites.put(key, sprite);
+		}
+		return sprite;
+	}
+	
+	private static BufferedImage render(
+			GraphicsConfiguration configuration, int size, Color color, boolean antialias) {
+		BufferedImage sprite = configuration.createCompatibleImage(size, size, Transparency.TRANSLUCENT);
+		Graphics2D g = sprite.createGraphics();
+		try {
+			if (antialias) {
+				g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+			}
+			g.setColor(color);
+			g.fillOval(0, 0, size, size);
+		} finally {
+			g.dispose();
+		}
+		return sprite;
+	}
+	
+}
@@ -0,0 +1,147 @@
+/**
+ * ActiveBallView is an alternative View component that renders actively
+ * instead of waiting for the RepaintManager:
+ * 		- A heavyweight Canvas with a BufferStrategy (page flipping where
+ * 			the platform supports it, blitting otherwise).
+ * 		- Its own "render" thread draws a whole frame into the back
+ * 			buffer and shows it, once per display refresh, so frame
+ * 			pacing and latency do not depend on how Swing coalesces
+ * 			repaint() calls.
+ * 		- Like BallView, it interpolates between ticks (TickedPosition)
+ * 			and blits sprites (SpriteCache).
+ * 		- Works inside the normal window, or in full-screen exclusive
+ * 			mode (see BallController).
+ * 
+ * STYLE NOTES
+ * As PropertyChangeSupport is used in Swing (and probably even today),
+ * more modern conventions have been used, including:
+ * 		- Magic numbers avoided (unless used one time).
+ * 		- "this" keyword only appears when necessary (e.g., arguments
+ * 			with the same name).
+ * 		- "final" fields where applicable.
+ * 		- Overridden methods marked with \@Override.
+ */
+package com.github.atollysis.ballbounceprogram.ball2_propertychange;
+
+import java.awt.Canvas;
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Toolkit;
+import java.awt.image.BufferStrategy;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import com.github.atollysis.ballbounceprogram.engine.TickMetrics;
+
+class ActiveBallView extends Canvas implements PositionListener {
+	
+	/*
+	 * FIELDS
+	 */
+	private static final long serialVersionUID = 1L;
+	// Front + back buffer
+	private static final int BUFFERS = 2;
+	private static final int SPRITE_CACHE_SIZE = 16;
+	private static final boolean ANTIALIAS = Boolean.getBoolean("ballbounce.antialias");
+	// Instance
+	private final int size;
+	private final TickMetrics metrics;
+	private final TickedPosition position;
+	private final SpriteCache sprites = new SpriteCache(SPRITE_CACHE_SIZE);
+	private final long frameNanos = TimeUnit.SECONDS.toNanos(1) / BallView.refreshRate();
+	private Thread renderer;
+	private volatile boolean rendering;
+
+	/*
+	 * CONSTRUCTOR
+	 */
+	public ActiveBallView(Ball model, TickMetrics metrics, long tickNanos) {
+		this.metrics = metrics;
+		size = model.getSize();
+		position = new TickedPosition(model.getX(), model.getY(), tickNanos, metrics);
+		setBackground(Color.BLACK);
+		// Frames come from the render thread, never from paint()
+		setIgnoreRepaint(true);
+	}
+	
+	/*
+	 * RENDER LOOP CONTROL
+	 * start() needs the Canvas to be displayable (its window shown).
+	 */
+	public void start() {
+		createBufferStrategy(BUFFERS);
+		rendering = true;
+		renderer = new Thread(this::renderLoop, "render");
+		renderer.setDaemon(true);
+		renderer.start();
+	}
+	
+	public void stop() throws InterruptedException {
+		rendering = false;
+		if (renderer != null) {
+			renderer.join();
+		}
+	}
+	
+	/*
+	 * POSITION LISTENER METHOD
+	 * Called by Ball.move() on the simulation thread.
+	 */
+	@Override
+	public void onMoved(int x, int y) {
+		long start = System.nanoTime();
+		position.moved(x, y, start);
+		metrics.recordDispatch(System.nanoTime() - start);
+	}
+	
+	/*
+	 * RENDER LOOP (render thread only)
+	 * One frame per refresh period; a late frame does not try to catch up.
+	 */
+	private void renderLoop() {
+		BufferStrategy strategy = getBufferStrategy();
+		long nextFrame = System.nanoTime();
+		while (rendering) {
+			long start = System.nanoTime();
+			render(strategy, position.at(start));
+			position.rendered();
+			metrics.recordPaint(System.nanoTime() - start);
+			
+			nextFrame += frameNanos;
+			long now = System.nanoTime();
+			if (now - nextFrame > frameNanos) {
+				nextFrame = now;
+			}
+			LockSupport.parkNanos(this, nextFrame - now);
+		}
+	}
+	
+	/*
+	 * The usual BufferStrategy loop: redraw while the buffer contents
+	 * are restored or lost (e.g. after a display mode change).
+	 */
+	private void render(BufferStrategy strategy, long drawn) {
+		do {
+			do {
+				Graphics g = strategy.getDrawGraphics();
+				try {
+					g.setColor(getBackground());
+					g.fillRect(0, 0, getWidth(), getHeight());
+					sprites.draw(
+							g,
+							TickedPosition.unpackX(drawn),
+							TickedPosition.unpackY(drawn),
+							size,
+							Color.RED,
+							ANTIALIAS);
+				} finally {
+					g.dispose();
+				}
+			} while (strategy.contentsRestored());
+			strategy.show();
+		} while (strategy.contentsLost());
+		// Flush the pipeline so the frame shows now (matters on X11)
+		Toolkit.getDefaultToolkit().sync();
+	}
+	
+}
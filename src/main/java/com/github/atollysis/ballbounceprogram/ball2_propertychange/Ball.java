@@ -8,6 +8,10 @@
  * 			* removePropertyChangeListener()
  * 		- Method: firePropertyChanged() for notifying registered observers
  * 			* Has overridden methods as well for different scenarios
+ * 		- An allocation-free path for position updates:
+ * 			* addPositionListener()/removePositionListener()
+ * 			* The PropertyChangeEvent (and its two Points) is only
+ * 				created when a PropertyChangeListener is registered.
  * 
  * STYLE NOTES
  * As PropertyChangeSupport is used in Swing (and probably even today),
@@ -26,6 +30,7 @@ package com.github.atollysis.ballbounceprogram.ball2_propertychange;
 import java.awt.Point;
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
+import java.util.Arrays;
 
 class Ball {
 	
@@ -36,11 +41,17 @@ class Ball {
 	private static final int DEFAULT_SIZE = 100;
 	private static final int DEFAULT_COORDS = 1;
 	private static final String PROPERTY_POS = "position";
+	private static final PositionListener[] NO_LISTENERS = {};
 	// Instance
 	private int x, y, dX, dY;
 	private final int size;
 	// Observable alternative
 	private final PropertyChangeSupport pcs = new PropertyChangeSupport(this);
+	/*
+	 * Copy-on-write array: add/remove replace it, move() only reads it,
+	 * so dispatching needs no iterator and no copy.
+	 */
+	private PositionListener[] positionListeners = NO_LISTENERS;
 
 	/*
 	 * CONSTRUCTORS
@@ -83,6 +94,24 @@ class Ball {
 	public void removePropertyChangeListener(PropertyChangeListener pcl) {
 		pcs.removePropertyChangeListener(pcl);
 	}
+	
+	public void addPositionListener(PositionListener pl) {
+		PositionListener[] listeners = Arrays.copyOf(positionListeners, positionListeners.length + 1);
+		listeners[positionListeners.length] = pl;
+		positionListeners = listeners;
+	}
+	
+	public void removePositionListener(PositionListener pl) {
+		for (int i = 0; i < positionListeners.length; i++) {
+			if (positionListeners[i] == pl) {
+				PositionListener[] listeners = new PositionListener[positionListeners.length - 1];
+				System.arraycopy(positionListeners, 0, listeners, 0, i);
+				System.arraycopy(positionListeners, i + 1, listeners, i, listeners.length - i);
+				positionListeners = listeners;
+				return;
+			}
+		}
+	}
 
 	/*
 	 * SERVICE METHOD
@@ -100,14 +129,22 @@ class Ball {
 		x += dX;
 		y += dY;
 		
+		// Allocation-free path first
+		for (PositionListener pl : positionListeners) {
+			pl.onMoved(x, y);
+		}
+		
 		/*
 		 * Call propertyChange() on all registered observers.
 		 * (Old value is technically not used here)
+		 * Skipped when nobody listens, so the Points are never created.
 		 */
-		pcs.firePropertyChange(
-				PROPERTY_POS,
-				new Point(oldX, oldY),
-				new Point(x, y));
+		if (pcs.hasListeners(PROPERTY_POS)) {
+			pcs.firePropertyChange(
+					PROPERTY_POS,
+					new Point(oldX, oldY),
+					new Point(x, y));
+		}
 	}
 	
 	// Helper
@@ -2,8 +2,14 @@
  * BallController is the Controller component of the system.
  * It has these responsibilities:
  * 		- Instantiate Model + View
- * 		- Connect View to Model (adding as a property change listener)
+ * 		- Connect View to Model (adding as a position listener)
  * 		- Connect user input to Model methods
+ * 		- Publish tick/paint timings over JMX (TickMetrics)
+ * 		- Tick the Model at a fixed (configurable) rate, while the View
+ * 			interpolates at the display's refresh rate
+ * 		- Pick the View: BallView (passive painting through the
+ * 			RepaintManager) or ActiveBallView (its own render loop),
+ * 			optionally in full-screen exclusive mode
  * 
  * STYLE NOTES
  * As PropertyChangeSupport is used in Swing (and probably even today),
@@ -17,19 +23,34 @@
  * 			initialization coexisted during Java 5-8, but more modern
  * 			conventions preferred the latter.
  * 		- Lambdas for action listeners.
+ * 		- The Model runs on its own thread (a ScheduledExecutorService)
+ * 			instead of a Swing Timer on the Event Dispatch Thread, so a
+ * 			slow paint does not slow the simulation (and vice versa). With
+ * 			a fixed delay, so a late tick never triggers a burst of
+ * 			catch-up ticks.
  */
 package com.github.atollysis.ballbounceprogram.ball2_propertychange;
 
 import java.awt.BorderLayout;
+import java.awt.Component;
 import java.awt.FlowLayout;
 import java.awt.Font;
+import java.awt.GraphicsDevice;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
 import javax.swing.BorderFactory;
 import javax.swing.BoxLayout;
 import javax.swing.JButton;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
-import javax.swing.Timer;
+
+import com.github.atollysis.ballbounceprogram.engine.TickMetrics;
 
 class BallController extends JFrame {
 	
@@ -38,13 +59,20 @@ class BallController extends JFrame {
 	 */
 	private static final long serialVersionUID = 1L;
 	private static final Font FONT = new Font("Monospaced", Font.BOLD, 16);
+	// usually 16ms = 60fps; 5ms = 200FPS (or as close as it can)
+	static final int DEFAULT_TIMER_DELAY = 5;
 	// Back-end
+	private final int timerDelay;
+	private final TickMetrics metrics;
 	private final Ball model	= new Ball();
-	private final BallView view = new BallView(model);
-	
-	private final Timer timer	= new Timer(
-			5, // usually 16ms = 60fps; 5ms = 200FPS (or as close as it can)
-			e -> model.move(view.getWidth(), view.getHeight()));
+	private final Component view;
+	// Simulation thread (only it calls model.move())
+	private final ScheduledExecutorService simulation =
+			Executors.newSingleThreadScheduledExecutor(BallController::newSimulationThread);
+	private ScheduledFuture<?> ticking;
+	// View size, handed from the EDT to the simulation thread
+	private volatile int xLimit;
+	private volatile int yLimit;
 	// GUI
 	private final JButton btnStep = newButton("STEP");
 	private final JButton btnPlay = newButton("ANIMATE");
@@ -52,27 +80,76 @@ class BallController extends JFrame {
 	/*
 	 * CONSTRUCTOR
 	 */
-	public BallController() {
-		model.addPropertyChangeListener(view);
+	public BallController(int timerDelay, boolean active, boolean fullScreen) {
+		this.timerDelay = timerDelay;
+		metrics = TickMetrics.register("ball2_propertychange", timerDelay);
+		long tickNanos = TimeUnit.MILLISECONDS.toNanos(timerDelay);
+		ActiveBallView activeView = null;
+		if (active) {
+			activeView = new ActiveBallView(model, metrics, tickNanos);
+			model.addPositionListener(activeView);
+			view = activeView;
+		} else {
+			BallView passiveView = new BallView(model, metrics, tickNanos);
+			model.addPositionListener(passiveView);
+			view = passiveView;
+		}
+		
+		GraphicsDevice device = getGraphicsConfiguration().getDevice();
+		boolean exclusive = fullScreen && device.isFullScreenSupported();
+		// No decorations in full screen (only allowed before it is shown)
+		setUndecorated(exclusive);
 		
 		setupLayout();
+		
+		if (exclusive) {
+			device.setFullScreenWindow(this);
+		}
+		if (activeView != null) {
+			activeView.start();
+		}
 
 		/*
 		 * USER INTERACTIONS
 		 */
 		btnStep.addActionListener(e -> {
-			model.move(view.getWidth(), view.getHeight());
+			simulation.execute(() -> model.move(xLimit, yLimit));
 		});
 		
 		btnPlay.addActionListener(e -> {
-			if (timer.isRunning()) {
-				timer.stop();
+			if (ticking != null) {
+				ticking.cancel(false);
+				ticking = null;
 			} else {
-				timer.start();
+				metrics.resume();
+				ticking = simulation.scheduleWithFixedDelay(
+						this::timedMove, 0, timerDelay, TimeUnit.MILLISECONDS);
+			}
+		});
+		
+		view.addComponentListener(new ComponentAdapter() {
+			@Override
+			public void componentResized(ComponentEvent e) {
+				xLimit = view.getWidth();
+				yLimit = view.getHeight();
 			}
 		});
 	}
 
+	// Runs on the simulation thread
+	private void timedMove() {
+		metrics.tick();
+		long start = System.nanoTime();
+		model.move(xLimit, yLimit);
+		metrics.recordMove(System.nanoTime() - start);
+	}
+
+	private static Thread newSimulationThread(Runnable r) {
+		Thread thread = new Thread(r, "simulation");
+		thread.setDaemon(true);
+		return thread;
+	}
+
 	private void setupLayout() {
 		setTitle("Ball Application");
 		setSize(1200, 700);
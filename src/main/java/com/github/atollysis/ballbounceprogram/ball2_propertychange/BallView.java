@@ -2,6 +2,24 @@
  * BallView is the View component of the system:
  * 		- Communicates with Model to show data
  * 		- Only shows data, NOT the process
+ * 		- Only repaints where the ball was and where it is now, unless
+ * 			that dirty region covers most of the panel
+ * 		- Draws between the last two ticks: a Swing Timer firing at the
+ * 			display's refresh rate places the ball between its previous
+ * 			and latest position, by how much of a tick has passed. The
+ * 			Model can tick slowly and motion still looks smooth (one
+ * 			tick late).
+ * 		- Blits a pre-rendered sprite (see SpriteCache) instead of
+ * 			rasterizing the oval on every paint; run with
+ * 			-Dballbounce.antialias=true for antialiased sprites
+ * 		- Safe to notify from the simulation thread: the position goes
+ * 			through a TickedPosition, so a frame always reads a matching
+ * 			previous/latest/time triple without locks or garbage
+ * 		- Updates never queue repaints: onMoved() only replaces the
+ * 			latest tick, and each frame reads it once, so a Model ticking
+ * 			faster than the panel paints just drops ticks (counted in
+ * 			TickMetrics by paintComponent(), so repaints merged by Swing
+ * 			are counted once)
  * 
  * STYLE NOTES
  * As PropertyChangeSupport is used in Swing (and probably even today),
@@ -16,37 +34,60 @@
  * 			conventions preferred the latter.
  * 		- Overridden methods marked with \@Override.
  * 		- Calls paintComponent() instead of paint().
+ * 		- Listens through PositionListener, updating its own Point in
+ * 			place (propertyChange() is kept for PropertyChangeSupport).
  */
 package com.github.atollysis.ballbounceprogram.ball2_propertychange;
 
 import java.awt.Color;
+import java.awt.DisplayMode;
 import java.awt.Graphics;
+import java.awt.GraphicsEnvironment;
 import java.awt.Point;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 
 import javax.swing.JPanel;
+import javax.swing.Timer;
 
-class BallView extends JPanel implements PropertyChangeListener {
+import com.github.atollysis.ballbounceprogram.engine.TickMetrics;
+
+class BallView extends JPanel implements PropertyChangeListener, PositionListener {
 	
 	/*
 	 * FIELDS
 	 */
 	private static final long serialVersionUID = 1L;
 	private static final String PROPERTY_POS = "position";
+	// Margin for rounding at the edge of the oval
+	private static final int DIRTY_MARGIN = 1;
+	// Past this share of the panel, one full repaint is cheaper
+	private static final double FULL_REPAINT_COVERAGE = 0.5;
+	private static final int DEFAULT_REFRESH_RATE = 60;
+	private static final int MILLIS_PER_SECOND = 1000;
+	private static final int SPRITE_CACHE_SIZE = 16;
+	private static final boolean ANTIALIAS = Boolean.getBoolean("ballbounce.antialias");
 	// Instance
 	private final int size;
-	private Point position;
+	private final TickMetrics metrics;
+	private final TickedPosition position;
+	private final Timer frames;
+	private final SpriteCache sprites = new SpriteCache(SPRITE_CACHE_SIZE);
+	// Position last drawn (EDT only)
+	private long drawn;
 
 	/*
 	 * CONSTRUCTOR
 	 */
-	public BallView(Ball model){
+	public BallView(Ball model, TickMetrics metrics, long tickNanos){
+		this.metrics = metrics;
 		size = model.getSize();
-		position = new Point(
-				model.getX(),
-				model.getY());
+		position = new TickedPosition(model.getX(), model.getY(), tickNanos, metrics);
+		drawn = TickedPosition.pack(model.getX(), model.getY());
 		setBackground(Color.BLACK);
+		
+		frames = new Timer(MILLIS_PER_SECOND / refreshRate(), e -> nextFrame());
+		frames.start();
 	}
 
 	/*
@@ -55,17 +96,21 @@ class BallView extends JPanel implements PropertyChangeListener {
 	 */
 	@Override
 	public void paintComponent(Graphics g){
+		long start = System.nanoTime();
 		super.paintComponent(g);
-		drawBall(g);
+		drawBall(g, drawn);
+		position.rendered();
+		metrics.recordPaint(System.nanoTime() - start);
 	}
 	
-	private void drawBall(Graphics g) {
-		g.setColor(Color.RED);
-		g.fillOval(
-				position.x,
-				position.y,
+	private void drawBall(Graphics g, long position) {
+		sprites.draw(
+				g,
+				TickedPosition.unpackX(position),
+				TickedPosition.unpackY(position),
 				size,
-				size);
+				Color.RED,
+				ANTIALIAS);
 	}
 	
 	/*
@@ -75,8 +120,63 @@ class BallView extends JPanel implements PropertyChangeListener {
 	@Override
 	public void propertyChange(PropertyChangeEvent evt) {
 		if (evt.getPropertyName().equals(PROPERTY_POS)) {
-			position = (Point) evt.getNewValue();
+			Point newPosition = (Point) evt.getNewValue();
+			onMoved(newPosition.x, newPosition.y);
+		}
+	}
+	
+	/*
+	 * POSITION LISTENER METHOD
+	 * Called by Ball.move() without creating any objects.
+	 * Runs on the simulation thread; the frame timer does the repaint.
+	 */
+	@Override
+	public void onMoved(int x, int y) {
+		long start = System.nanoTime();
+		position.moved(x, y, start);
+		metrics.recordDispatch(System.nanoTime() - start);
+	}
+	
+	/*
+	 * FRAME METHOD
+	 * Called by the frame timer on the EDT.
+	 */
+	private void nextFrame() {
+		long old = drawn;
+		drawn = position.at(System.nanoTime());
+		if (drawn != old) {
+			repaintDirty(
+					TickedPosition.unpackX(old),
+					TickedPosition.unpackY(old),
+					TickedPosition.unpackX(drawn),
+					TickedPosition.unpackY(drawn));
+		}
+	}
+	
+	static int refreshRate() {
+		DisplayMode mode = GraphicsEnvironment.getLocalGraphicsEnvironment()
+				.getDefaultScreenDevice()
+				.getDisplayMode();
+		int rate = mode.getRefreshRate();
+		return rate == DisplayMode.REFRESH_RATE_UNKNOWN ? DEFAULT_REFRESH_RATE : rate;
+	}
+	
+	/*
+	 * DIRTY REGION HELPER
+	 * Repaints the union of the old and new ball bounds.
+	 */
+	private void repaintDirty(int oldX, int oldY, int x, int y) {
+		int left = Math.min(oldX, x) - DIRTY_MARGIN;
+		int top = Math.min(oldY, y) - DIRTY_MARGIN;
+		int width = Math.abs(x - oldX) + size + 2 * DIRTY_MARGIN;
+		int height = Math.abs(y - oldY) + size + 2 * DIRTY_MARGIN;
+		
+		long dirtyArea = (long) width * height;
+		long panelArea = (long) getWidth() * getHeight();
+		if (dirtyArea >= FULL_REPAINT_COVERAGE * panelArea) {
 			repaint();
+		} else {
+			repaint(left, top, width, height);
 		}
 	}
 	
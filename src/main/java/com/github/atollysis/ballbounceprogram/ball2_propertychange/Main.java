@@ -12,21 +12,60 @@
  * 		- invokeLater() needs a Runnable, which usually takes
  * 			in an anonymous class in older conventions. A lambda
  * 			takes its place in modern conventions (shown here).
+ * 
+ * RUNNING NOTES
+ * Optional arguments, in any order:
+ * 		- A number sets the simulation's tick period in ms
+ * 			(BallController.DEFAULT_TIMER_DELAY by default); the View
+ * 			interpolates between ticks, so e.g. 33 (30 ticks/s) stays
+ * 			smooth. Anything but a positive number prints the usage.
+ * 		- "active" renders through ActiveBallView (BufferStrategy)
+ * 			instead of repaint().
+ * 		- "fullscreen" does the same in full-screen exclusive mode.
  */
 package com.github.atollysis.ballbounceprogram.ball2_propertychange;
 
+import java.util.Arrays;
+import java.util.List;
+
 import javax.swing.SwingUtilities;
 
 class Main {
 
+	private static final String ACTIVE = "active";
+	private static final String FULL_SCREEN = "fullscreen";
+	private static final String USAGE = "Usage: Main [tick period in ms, > 0] [active] [fullscreen]";
+
 	public static void main(String[] args) {
+		List<String> options = Arrays.asList(args);
+		boolean fullScreen = options.contains(FULL_SCREEN);
+		boolean active = fullScreen || options.contains(ACTIVE);
+		int timerDelay = options.stream()
+				.filter(arg -> !arg.equals(ACTIVE) && !arg.equals(FULL_SCREEN))
+				.mapToInt(Main::parseTimerDelay)
+				.findFirst()
+				.orElse(BallController.DEFAULT_TIMER_DELAY);
 		SwingUtilities.invokeLater(() -> {
 			try {
-				new BallController();
+				new BallController(timerDelay, active, fullScreen);
 			} catch (Exception e) {
 				e.printStackTrace();
 			}
 		});
 	}
 
+	private static int parseTimerDelay(String arg) {
+		int timerDelay;
+		try {
+			timerDelay = Integer.parseInt(arg);
+		} catch (NumberFormatException e) {
+			timerDelay = 0;
+		}
+		if (timerDelay <= 0) {
+			System.err.println(USAGE);
+			System.exit(1);
+		}
+		return timerDelay;
+	}
+
 }
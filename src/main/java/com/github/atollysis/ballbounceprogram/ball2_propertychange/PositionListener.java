@@ -0,0 +1,21 @@
+/**
+ * PositionListener is a primitive-specialized alternative to
+ * PropertyChangeListener for the "position" property:
+ * 		- onMoved() receives the new coordinates as plain ints, so
+ * 			no Point or PropertyChangeEvent has to be created per move.
+ * 		- Registered through Ball.addPositionListener(), next to the
+ * 			existing addPropertyChangeListener().
+ * 
+ * STYLE NOTES
+ * As PropertyChangeSupport is used in Swing (and probably even today),
+ * more modern conventions have been used, including:
+ * 		- \@FunctionalInterface, so a lambda can be registered.
+ */
+package com.github.atollysis.ballbounceprogram.ball2_propertychange;
+
+@FunctionalInterface
+interface PositionListener {
+
+	void onMoved(int x, int y);
+
+}
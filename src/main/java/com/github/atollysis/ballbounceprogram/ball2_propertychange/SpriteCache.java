@@ -0,0 +1,135 @@
+/**
+ * SpriteCache keeps pre-rendered ball sprites, so a View blits an image
+ * instead of rasterizing an oval on every paint:
+ * 		- One sprite per size, color and antialiasing setting, rendered
+ * 			once into a translucent image compatible with the screen
+ * 			(a "managed" image, which Java2D keeps in video memory when
+ * 			the pipeline is accelerated).
+ * 		- At most "capacity" sprites are kept; the least recently drawn
+ * 			one is evicted (and its surfaces released) first.
+ * 		- Sprites are dropped when the View moves to a screen with a
+ * 			different GraphicsConfiguration.
+ * Only used from one thread (the Event Dispatch Thread, or the render
+ * thread of an ActiveBallView), so it needs no locking.
+ * 
+ * STYLE NOTES
+ * As PropertyChangeSupport is used in Swing (and probably even today),
+ * more modern conventions have been used, including:
+ * 		- Magic numbers avoided (unless used one time).
+ * 		- "this" keyword only appears when necessary (e.g., arguments
+ * 			with the same name).
+ * 		- "final" fields where applicable.
+ * 		- Generics and the diamond operator for collections.
+ */
+package com.github.atollysis.ballbounceprogram.ball2_propertychange;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+class SpriteCache {
+	
+	/*
+	 * FIELDS
+	 */
+	private static final int INITIAL_CAPACITY = 16;
+	private static final float LOAD_FACTOR = 0.75f;
+	private static final long INT_MASK = 0xFFFF_FFFFL;
+	// Instance
+	private final Map<Long, BufferedImage> sprites;
+	private GraphicsConfiguration configuration;
+
+	/*
+	 * CONSTRUCTOR
+	 */
+	public SpriteCache(int capacity) {
+		// Access order + removeEldestEntry() = least recently used first out
+		sprites = new LinkedHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, BufferedImage> eldest) {
+				if (size() > capacity) {
+					eldest.getValue().flush();
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+	
+	/*
+	 * SERVICE METHODS
+	 */
+	/**
+	 * Draws a ball of the given size and color with its top-left
+	 * corner at (x, y), like g.fillOval(x, y, size, size) would.
+	 */
+	public void draw(Graphics g, int x, int y, int size, Color color, boolean antialias) {
+		if (size <= 0) {
+			return;
+		}
+		g.drawImage(sprite((Graphics2D) g, size, color, antialias), x, y, null);
+	}
+	
+	public int getSize() {
+		return sprites.size();
+	}
+	
+	public void clear() {
+		for (BufferedImage sprite : sprites.values()) {
+			sprite.flush();
+		}
+		sprites.clear();
+	}
+	
+	/*
+	 * SPRITE HELPERS
+	 */
+	private BufferedImage sprite(Graphics2D g, int size, Color color, boolean antialias) {
+		GraphicsConfiguration current = g.getDeviceConfiguration();
+		if (current != configuration) {
+			clear();
+			configuration = current;
+		}
+		Long key = key(size, color, antialias);
+		BufferedImage sprite = sprites.get(key);
+		if (sprite == null) {
+			sprite = render(current, size, color, antialias);
+			sprites.put(key, sprite);
+		}
+		return sprite;
+	}
+	
+	private static BufferedImage render(
+			GraphicsConfiguration configuration, int size, Color color, boolean antialias) {
+		BufferedImage sprite = configuration.createCompatibleImage(size, size, Transparency.TRANSLUCENT);
+		Graphics2D g = sprite.createGraphics();
+		try {
+			if (antialias) {
+				g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+			}
+			g.setColor(color);
+			g.fillOval(0, 0, size, size);
+		} finally {
+			g.dispose();
+		}
+		return sprite;
+	}
+	
+	/*
+	 * KEY HELPER
+	 * Color (ARGB) in the high 32 bits, size and antialiasing below.
+	 */
+	private static long key(int size, Color color, boolean antialias) {
+		return ((long) color.getRGB() << Integer.SIZE)
+				| (((long) size << 1 | (antialias ? 1 : 0)) & INT_MASK);
+	}
+	
+}
@@ -0,0 +1,122 @@
+/**
+ * TickedPosition hands the ball's position from the simulation thread
+ * to a View's drawing thread, and interpolates between ticks:
+ * 		- moved() (simulation thread) keeps the previous and latest
+ * 			position and the time of the latest tick.
+ * 		- at() (drawing thread) places the ball between those two
+ * 			positions by how much of a tick has passed, so motion stays
+ * 			smooth even when the Model ticks slower than the display.
+ * 		- The three values are published with a sequence number (a
+ * 			"seqlock"): the reader retries until it reads a matching
+ * 			triple, without locks or garbage on either side.
+ * 		- Only the latest tick is kept, however slowly frames are drawn;
+ * 			the sequence number tells rendered() (called once per frame
+ * 			actually drawn) how many ticks were skipped since the last
+ * 			one, so TickMetrics counts them as produced, rendered and
+ * 			dropped.
+ * Supports one writer thread and one reader thread.
+ * 
+ * STYLE NOTES
+ * As PropertyChangeSupport is used in Swing (and probably even today),
+ * more modern conventions have been used, including:
+ * 		- Magic numbers avoided (unless used one time).
+ * 		- "this" keyword only appears when necessary (e.g., arguments
+ * 			with the same name).
+ * 		- "final" fields where applicable.
+ */
+package com.github.atollysis.ballbounceprogram.ball2_propertychange;
+
+import com.github.atollysis.ballbounceprogram.engine.TickMetrics;
+
+class TickedPosition {
+	
+	/*
+	 * FIELDS
+	 */
+	private static final long INT_MASK = 0xFFFF_FFFFL;
+	// Instance
+	private final long tickNanos;
+	private final TickMetrics metrics;
+	// Written by the simulation thread (odd sequence = being written)
+	private volatile int sequence;
+	private volatile long previous;
+	private volatile long latest;
+	private volatile long latestNanos;
+	// Reader only
+	private int readSequence;
+	private int drawnSequence;
+
+	/*
+	 * CONSTRUCTOR
+	 */
+	public TickedPosition(int x, int y, long tickNanos, TickMetrics metrics) {
+		this.tickNanos = tickNanos;
+		this.metrics = metrics;
+		latest = previous = pack(x, y);
+	}
+	
+	/*
+	 * WRITER (simulation thread)
+	 */
+	public void moved(int x, int y, long nanos) {
+		sequence++;
+		previous = latest;
+		latest = pack(x, y);
+		latestNanos = nanos;
+		sequence++;
+		metrics.recordProduced();
+	}
+	
+	/*
+	 * READER (drawing thread)
+	 */
+	/**
+	 * The interpolated position at the given System.nanoTime(), packed
+	 * (not counted until rendered()).
+	 */
+	public long at(long nanos) {
+		long from;
+		long to;
+		long tickStart;
+		int before;
+		do {
+			before = sequence;
+			from = previous;
+			to = latest;
+			tickStart = latestNanos;
+		} while ((before & 1) != 0 || before != sequence);
+		readSequence = before;
+		
+		double alpha = Math.min(1, Math.max(0, (double) (nanos - tickStart) / tickNanos));
+		int x = (int) Math.round(unpackX(from) + (unpackX(to) - unpackX(from)) * alpha);
+		int y = (int) Math.round(unpackY(from) + (unpackY(to) - unpackY(from)) * alpha);
+		return pack(x, y);
+	}
+	
+	/**
+	 * Counts the ticks up to the last at() as rendered (the newest) or
+	 * dropped; called once per frame drawn.
+	 */
+	public void rendered() {
+		// Two sequence steps per tick (the difference survives overflow)
+		metrics.recordDrained((readSequence - drawnSequence) >>> 1);
+		drawnSequence = readSequence;
+	}
+	
+	/*
+	 * PACKING HELPERS
+	 * x in the high 32 bits, y in the low 32 bits.
+	 */
+	static long pack(int x, int y) {
+		return ((long) x << Integer.SIZE) | (y & INT_MASK);
+	}
+	
+	static int unpackX(long position) {
+		return (int) (position >> Integer.SIZE);
+	}
+	
+	static int unpackY(long position) {
+		return (int) position;
+	}
+	
+}
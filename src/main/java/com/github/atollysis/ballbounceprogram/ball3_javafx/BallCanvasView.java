@@ -0,0 +1,283 @@
+/**
+ * BallCanvasView is an alternative View component for large populations:
+ * 		- Draws every ball of a BallWorld on one Canvas, instead of one
+ * 			Circle node per ball.
+ * 		- No bindings; on every pulse (through an AnimationTimer) it
+ * 			takes the latest WorldSnapshot published by the simulation
+ * 			thread and reads it in one pass, without locks. The frame
+ * 			time depends on the pixels drawn, not on the number of Nodes.
+ * 		- Draws between the last two ticks: each ball is placed between
+ * 			its previous and latest position (both in the snapshot), by
+ * 			how much of a tick has passed since the latest one was
+ * 			published. Motion stays smooth at the display's refresh rate
+ * 			even with a slow tick rate (at the cost of showing the world
+ * 			one tick late).
+ * 		- Shows the world through a viewport, which may be smaller or
+ * 			larger than the world: drag to pan, scroll to zoom around the
+ * 			cursor, double-click to fit every ball in.
+ * 		- Only visits (and interpolates) the balls inside the viewport,
+ * 			through the SpatialGrid each snapshot carries, and copies
+ * 			nothing per tick, so a frame costs what is visible, not the
+ * 			size of the world.
+ * 		- Level of detail by size on screen: ovals, then plain squares
+ * 			below SQUARE_DIAMETER pixels, then single pixels (set in an
+ * 			image drawn once per frame) below DOT_DIAMETER.
+ * 		- Expects a BallWorld with Anchor.CENTER, matching the Circle
+ * 			convention of BallView (x/y is the center, size the radius).
+ * 
+ * STYLE NOTES
+ * As the most modern equivalent to the previous examples, it keeps the
+ * conventions from the PropertyChangeSupport example:
+ * 		- "this" keyword only appears when necessary.
+ * 		- "final" fields where applicable.
+ * 		- Initialization of fields in the declaration.
+ * Additionally:
+ * 		- Strictly no magic numbers.
+ */
+package com.github.atollysis.ballbounceprogram.ball3_javafx;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+import com.github.atollysis.ballbounceprogram.engine.SnapshotBuffer;
+import com.github.atollysis.ballbounceprogram.engine.TickMetrics;
+import com.github.atollysis.ballbounceprogram.engine.WorldSnapshot;
+
+import javafx.animation.AnimationTimer;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+
+class BallCanvasView extends Pane {
+
+	/*
+	 * FIELDS
+	 */
+	private static final Color COLOR_BACKGROUND = Color.BLACK;
+	private static final Color COLOR_BALL = Color.RED;
+	// Viewport
+	private static final double MIN_SCALE = 1e-4;
+	private static final double MAX_SCALE = 64;
+	private static final double ZOOM_PER_NOTCH = 1.25;
+	// Scroll delta of one mouse wheel notch
+	private static final double SCROLL_NOTCH = 40;
+	private static final int DOUBLE_CLICK = 2;
+	// Level of detail (diameters in pixels)
+	private static final double SQUARE_DIAMETER = 4;
+	private static final double DOT_DIAMETER = 1.5;
+	private static final PixelFormat<IntBuffer> DOT_FORMAT = PixelFormat.getIntArgbPreInstance();
+	private static final int DOT_ARGB = 0xFF << 24
+			| (int) Math.round(COLOR_BALL.getRed() * 0xFF) << 16
+			| (int) Math.round(COLOR_BALL.getGreen() * 0xFF) << 8
+			| (int) Math.round(COLOR_BALL.getBlue() * 0xFF);
+	private static final int NO_DOT = 0;
+	// Instance
+	private final SnapshotBuffer snapshots;
+	private final TickMetrics metrics;
+	private final long tickNanos;
+	private final Canvas canvas = new Canvas();
+	private final AnimationTimer pulse = new AnimationTimer() {
+		@Override
+		public void handle(long now) {
+			draw(now);
+		}
+	};
+	// Viewport: world coordinates at the top-left corner, pixels per unit
+	private double offsetX;
+	private double offsetY;
+	private double scale = 1;
+	private double dragX;
+	private double dragY;
+	// Balls drawn as single pixels (the same size as the canvas)
+	private WritableImage dots;
+	private int[] dotPixels = new int[0];
+	private boolean dotsDrawn;
+
+	/*
+	 * CONSTRUCTOR
+	 */
+	/**
+	 * tickNanos is the time between two ticks (0 turns interpolation
+	 * off, e.g. when frames come as fast as they can).
+	 */
+	public BallCanvasView(SnapshotBuffer snapshots, TickMetrics metrics, long tickNanos) {
+		this.snapshots = snapshots;
+		this.metrics = metrics;
+		this.tickNanos = tickNanos;
+
+		// The canvas always fills the pane
+		canvas.widthProperty().bind(widthProperty());
+		canvas.heightProperty().bind(heightProperty());
+		getChildren().add(canvas);
+
+		// Each snapshot comes with the index the viewport queries
+		snapshots.setIndexed(true);
+
+		/*
+		 * USER INTERACTIONS
+		 */
+		setOnMousePressed(e -> {
+			dragX = e.getX();
+			dragY = e.getY();
+		});
+
+		setOnMouseDragged(e -> {
+			offsetX -= (e.getX() - dragX) / scale;
+			offsetY -= (e.getY() - dragY) / scale;
+			dragX = e.getX();
+			dragY = e.getY();
+		});
+
+		setOnScroll(e -> zoom(Math.pow(ZOOM_PER_NOTCH, e.getDeltaY() / SCROLL_NOTCH), e.getX(), e.getY()));
+
+		setOnMouseClicked(e -> {
+			if (e.getClickCount() == DOUBLE_CLICK) {
+				fitAll();
+			}
+		});
+
+		pulse.start();
+	}
+
+	/*
+	 * DRAW METHOD
+	 * Called once per pulse by the AnimationTimer.
+	 */
+	private void draw(long now) {
+		var start = System.nanoTime();
+		var snapshot = snapshots.latest();
+		var gc = canvas.getGraphicsContext2D();
+		gc.setFill(COLOR_BACKGROUND);
+		gc.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+		gc.setFill(COLOR_BALL);
+		drawBalls(gc, snapshot, progress(now, snapshot));
+		metrics.recordPaint(System.nanoTime() - start);
+	}
+
+	private void drawBalls(GraphicsContext gc, WorldSnapshot snapshot, double alpha) {
+		var count = snapshot.getCount();
+		var grid = snapshot.getGrid();
+		if (grid == null || grid.getCount() != count) {
+			// Not indexed (yet): visit everything
+			for (int i = 0; i < count; i++) {
+				drawBall(gc, snapshot, i, alpha);
+			}
+		} else {
+			// Visible region, widened by how far a ball reaches out of its cell
+			var margin = snapshot.getGridMargin();
+			var minX = offsetX - margin;
+			var maxX = offsetX + canvas.getWidth() / scale + margin;
+			var minY = offsetY - margin;
+			var maxY = offsetY + canvas.getHeight() / scale + margin;
+			// Panned off every ball (column() and row() would clamp to the edge)
+			if (maxX < grid.getMinX() || minX > grid.getMaxX()
+					|| maxY < grid.getMinY() || minY > grid.getMaxY()) {
+				return;
+			}
+			var left = grid.column(minX);
+			var right = grid.column(maxX);
+			var top = grid.row(minY);
+			var bottom = grid.row(maxY);
+			for (int row = top; row <= bottom; row++) {
+				var to = grid.start(row, right + 1);
+				for (int k = grid.start(row, left); k < to; k++) {
+					drawBall(gc, snapshot, grid.ball(k), alpha);
+				}
+			}
+		}
+		if (dotsDrawn) {
+			drawDots(gc);
+		}
+	}
+
+	private void drawBall(GraphicsContext gc, WorldSnapshot snapshot, int i, double alpha) {
+		var fromX = snapshot.getPreviousX(i);
+		var fromY = snapshot.getPreviousY(i);
+		var x = (fromX + (snapshot.getX(i) - fromX) * alpha - offsetX) * scale;
+		var y = (fromY + (snapshot.getY(i) - fromY) * alpha - offsetY) * scale;
+		var diameter = 2 * snapshot.getSize(i) * scale;
+		if (diameter >= SQUARE_DIAMETER) {
+			gc.fillOval(x - diameter / 2, y - diameter / 2, diameter, diameter);
+		} else if (diameter >= DOT_DIAMETER) {
+			gc.fillRect(x - diameter / 2, y - diameter / 2, diameter, diameter);
+		} else {
+			plotDot((int) x, (int) y);
+		}
+	}
+
+	/*
+	 * DOT LAYER
+	 * Far out, one pixel per ball: set in an int[] and drawn as one image.
+	 */
+	private void plotDot(int x, int y) {
+		var width = (int) canvas.getWidth();
+		var height = (int) canvas.getHeight();
+		if (x < 0 || y < 0 || x >= width || y >= height) {
+			return;
+		}
+		if (dots == null || dots.getWidth() != width || dots.getHeight() != height) {
+			dots = new WritableImage(width, height);
+			dotPixels = new int[width * height];
+		}
+		dotPixels[y * width + x] = DOT_ARGB;
+		dotsDrawn = true;
+	}
+
+	private void drawDots(GraphicsContext gc) {
+		var width = (int) dots.getWidth();
+		var height = (int) dots.getHeight();
+		dots.getPixelWriter().setPixels(0, 0, width, height, DOT_FORMAT, dotPixels, 0, width);
+		gc.drawImage(dots, 0, 0);
+		Arrays.fill(dotPixels, NO_DOT);
+		dotsDrawn = false;
+	}
+
+	/*
+	 * VIEWPORT HELPERS
+	 */
+	/**
+	 * Zooms by the factor, keeping the world point under (x, y) in place.
+	 */
+	private void zoom(double factor, double x, double y) {
+		var worldX = offsetX + x / scale;
+		var worldY = offsetY + y / scale;
+		scale = Math.min(MAX_SCALE, Math.max(MIN_SCALE, scale * factor));
+		offsetX = worldX - x / scale;
+		offsetY = worldY - y / scale;
+	}
+
+	/**
+	 * Shows every ball of the latest snapshot.
+	 */
+	private void fitAll() {
+		var snapshot = snapshots.latest();
+		var grid = snapshot.getGrid();
+		if (grid == null) {
+			return;
+		}
+		var margin = snapshot.getGridMargin();
+		var width = Math.max(1, grid.getMaxX() - grid.getMinX() + 2 * margin);
+		var height = Math.max(1, grid.getMaxY() - grid.getMinY() + 2 * margin);
+		scale = Math.min(MAX_SCALE, Math.max(MIN_SCALE,
+				Math.min(canvas.getWidth() / width, canvas.getHeight() / height)));
+		offsetX = grid.getMinX() - margin;
+		offsetY = grid.getMinY() - margin;
+	}
+
+	/*
+	 * INTERPOLATION HELPER
+	 */
+	/**
+	 * How far (0 to 1) the pulse is between the latest tick and the next.
+	 */
+	private double progress(long now, WorldSnapshot snapshot) {
+		if (tickNanos <= 0) {
+			return 1;
+		}
+		return Math.min(1, Math.max(0, (double) (now - snapshot.getNanos()) / tickNanos));
+	}
+
+}
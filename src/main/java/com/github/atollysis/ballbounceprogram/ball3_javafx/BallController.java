@@ -4,6 +4,9 @@
  * 		- Instantiate Model + View
  * 		- Connect View to Model (plugging in Model in View constructor)
  * 		- Connect user input to Model methods
+ * 		- Publish tick/pulse timings over JMX (TickMetrics)
+ * 		- Tick the Model at a fixed (configurable) rate, while the View
+ * 			interpolates on every pulse
  * 
  * STYLE NOTES
  * As the most modern equivalent to the previous examples, it keeps the
@@ -23,6 +26,10 @@
  */
 package com.github.atollysis.ballbounceprogram.ball3_javafx;
 
+import java.util.concurrent.TimeUnit;
+
+import com.github.atollysis.ballbounceprogram.engine.TickMetrics;
+
 import javafx.animation.Animation.Status;
 import javafx.animation.Animation;
 import javafx.animation.KeyFrame;
@@ -48,11 +55,11 @@ class BallController extends BorderPane {
 	private static final int BTN_SPACING = 20;
 	// Back-end
 	private final Ball model	= new Ball();
-	private final BallView view = new BallView(model);
+	private final BallView view;
+	private final TickMetrics metrics;
+	private long pulseStart;
 	// Timer is a Timeline in JavaFX
-	private final Timeline timeline = new Timeline(new KeyFrame(
-					Duration.millis(16), 
-					e -> model.move()));
+	private final Timeline timeline;
 	// GUI
 	private final Button btnStep = newButton("Step");
 	private final Button btnPlay = newButton("Animate");
@@ -61,7 +68,12 @@ class BallController extends BorderPane {
 	/*
 	 * CONSTRUCTOR
 	 */
-	public BallController() {
+	public BallController(int tickMillis) {
+		view = new BallView(model, TimeUnit.MILLISECONDS.toNanos(tickMillis));
+		metrics = TickMetrics.register("ball3_javafx", tickMillis);
+		timeline = new Timeline(new KeyFrame(
+				Duration.millis(tickMillis), 
+				e -> timedMove()));
 		timeline.setCycleCount(Animation.INDEFINITE);
 		
 		setupLayout();
@@ -69,12 +81,16 @@ class BallController extends BorderPane {
 		/*
 		 * USER INTERACTIONS
 		 */
-		btnStep.setOnAction(e -> model.move());
+		btnStep.setOnAction(e -> {
+			model.move();
+			view.ticked();
+		});
 		
 		btnPlay.setOnAction(e -> {
 			if (timeline.getStatus() == Status.RUNNING) {
 				timeline.pause();
 			} else {
+				metrics.resume();
 				timeline.play();
 			}
 		});
@@ -91,6 +107,28 @@ class BallController extends BorderPane {
 		view.heightProperty().addListener((obs, oldVal, newVal) -> {
 			model.setYLimit(newVal.intValue());
 		});
+		
+		/*
+		 * Time each pulse's CSS + layout pass once this is in a Scene.
+		 * (Bound properties are only re-read by the pulse, so listener
+		 * dispatch shows up here rather than as a separate cost.)
+		 */
+		sceneProperty().addListener((obs, oldScene, newScene) -> {
+			if (newScene != null) {
+				newScene.addPreLayoutPulseListener(() -> pulseStart = System.nanoTime());
+				newScene.addPostLayoutPulseListener(() -> {
+					metrics.recordPaint(System.nanoTime() - pulseStart);
+				});
+			}
+		});
+	}
+	
+	private void timedMove() {
+		metrics.tick();
+		var start = System.nanoTime();
+		model.move();
+		metrics.recordMove(System.nanoTime() - start);
+		view.ticked();
 	}
 	
 	private void setupLayout() {
@@ -4,6 +4,11 @@
  * 		- Only shows data, NOT the process
  * 		- In JavaFX MVC, it binds the properties between Model
  * 			and component (now called Node in JavaFX).
+ * 		- The position is not bound, but interpolated: the Controller
+ * 			calls ticked() after every move(), and on every pulse (through
+ * 			an AnimationTimer) the circle is placed between the last two
+ * 			positions, so motion stays smooth at the display's refresh
+ * 			rate whatever the tick rate (one tick late).
  * 
  * STYLE NOTES
  * As the most modern equivalent to the previous examples, it keeps the
@@ -16,6 +21,7 @@
  */
 package com.github.atollysis.ballbounceprogram.ball3_javafx;
 
+import javafx.animation.AnimationTimer;
 import javafx.scene.layout.Background;
 import javafx.scene.layout.Pane;
 import javafx.scene.paint.Color;
@@ -29,12 +35,28 @@ class BallView extends Pane {
 	private static final Background BACKGROUND = Background.fill(Color.BLACK);
 	private static final Color COLOR_BALL = Color.RED;
 	// Instance
+	private final Ball model;
+	private final long tickNanos;
 	private final Circle circle;
+	private final AnimationTimer pulse = new AnimationTimer() {
+		@Override
+		public void handle(long now) {
+			interpolate(now);
+		}
+	};
+	// Positions of the last two ticks
+	private int previousX;
+	private int previousY;
+	private int latestX;
+	private int latestY;
+	private long latestNanos;
 	
 	/*
 	 * CONSTRUCTOR
 	 */
-	public BallView(Ball model) {
+	public BallView(Ball model, long tickNanos) {
+		this.model = model;
+		this.tickNanos = tickNanos;
 		setBackground(BACKGROUND);
 		
 		// Circle is center-based, so use size/radius instead of 0
@@ -48,11 +70,37 @@ class BallView extends Pane {
 		
 		/*
 		 * Bind/Connect the properties. For circles in JavaFX,
-		 * the position is the centerX/YProperty.
+		 * the position is the centerX/YProperty, which is set by
+		 * interpolate() instead.
 		 */
-		circle.centerXProperty().bind(model.xProperty());
-		circle.centerYProperty().bind(model.yProperty());
 		circle.radiusProperty().bind(model.sizeProperty());
+		
+		latestX = previousX = model.xProperty().get();
+		latestY = previousY = model.yProperty().get();
+		pulse.start();
+	}
+	
+	/*
+	 * TICK METHOD
+	 * Called by the Controller after every move().
+	 */
+	public void ticked() {
+		previousX = latestX;
+		previousY = latestY;
+		latestX = model.xProperty().get();
+		latestY = model.yProperty().get();
+		latestNanos = System.nanoTime();
+	}
+	
+	/*
+	 * PULSE METHOD
+	 * Places the circle by how much of a tick has passed since the
+	 * latest one (AnimationTimer times are System.nanoTime() based).
+	 */
+	private void interpolate(long now) {
+		var alpha = Math.min(1, Math.max(0, (double) (now - latestNanos) / tickNanos));
+		circle.setCenterX(previousX + (latestX - previousX) * alpha);
+		circle.setCenterY(previousY + (latestY - previousY) * alpha);
 	}
 	
 }
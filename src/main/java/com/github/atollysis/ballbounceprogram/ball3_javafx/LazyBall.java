@@ -0,0 +1,150 @@
+/**
+ * LazyBall is a compact variant of the Ball Model, for populations that
+ * are drawn in bulk (e.g. on a Canvas) rather than bound node by node:
+ * 		- The state is plain ints, not seven IntegerProperty objects.
+ * 		- The limits live in one WorldLimits shared by every ball.
+ * 		- xProperty(), yProperty() and sizeProperty() still exist for
+ * 			binding, but each property is only created the first time
+ * 			it is asked for. From then on the value lives in the
+ * 			property, so bindings see every move() (the usual JavaFX
+ * 			"lazy property" pattern).
+ * An unbound LazyBall is one small object instead of about fifteen.
+ * It is a library-only variant for now: only BallFootprintBenchmark
+ * builds a population of them. The app draws bulk populations from a
+ * BallWorld instead (see BallCanvasView), which already keeps plain ints
+ * in shared columns.
+ * 
+ * STYLE NOTES
+ * As the most modern equivalent to the previous examples, it keeps the
+ * conventions from the PropertyChangeSupport example:
+ * 		- "this" keyword only appears when necessary.
+ * 		- "final" fields where applicable.
+ * 		- Initialization of fields in the declaration.
+ * Additionally:
+ * 		- Strictly no magic numbers.
+ */
+package com.github.atollysis.ballbounceprogram.ball3_javafx;
+
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+
+class LazyBall {
+
+	/*
+	 * FIELDS
+	 */
+	// Defaults (same as Ball)
+	private static final int DEFAULT_DIR = 5;
+	private static final int DEFAULT_SIZE = 50;
+	private static final int DEFAULT_COORDS = DEFAULT_SIZE;
+	// Instance
+	private final WorldLimits limits;
+	private int x;
+	private int y;
+	private int dX;
+	private int dY;
+	private int size;
+	// Created on demand (null until someone binds to them)
+	private IntegerProperty xProperty;
+	private IntegerProperty yProperty;
+	private IntegerProperty sizeProperty;
+
+	/*
+	 * CONSTRUCTORS
+	 */
+	public LazyBall(WorldLimits limits, int x, int y, int dX, int dY, int size) {
+		this.limits = limits;
+		this.x = x;
+		this.y = y;
+		this.dX = dX;
+		this.dY = dY;
+		this.size = size;
+	}
+
+	public LazyBall(WorldLimits limits) {
+		this(limits, DEFAULT_COORDS, DEFAULT_COORDS, DEFAULT_DIR, DEFAULT_DIR, DEFAULT_SIZE);
+	}
+
+	/*
+	 * GETTERS
+	 * Usually written in triples: get property, get/set value
+	 */
+	public IntegerProperty xProperty() {
+		if (xProperty == null) {
+			xProperty = new SimpleIntegerProperty(this, "x", x);
+		}
+		return xProperty;
+	}
+
+	public int getX() {
+		return xProperty == null ? x : xProperty.get();
+	}
+
+	public void setX(int x) {
+		if (xProperty == null) {
+			this.x = x;
+		} else {
+			xProperty.set(x);
+		}
+	}
+
+	public IntegerProperty yProperty() {
+		if (yProperty == null) {
+			yProperty = new SimpleIntegerProperty(this, "y", y);
+		}
+		return yProperty;
+	}
+
+	public int getY() {
+		return yProperty == null ? y : yProperty.get();
+	}
+
+	public void setY(int y) {
+		if (yProperty == null) {
+			this.y = y;
+		} else {
+			yProperty.set(y);
+		}
+	}
+
+	public IntegerProperty sizeProperty() {
+		if (sizeProperty == null) {
+			sizeProperty = new SimpleIntegerProperty(this, "size", size);
+		}
+		return sizeProperty;
+	}
+
+	public int getSize() {
+		return sizeProperty == null ? size : sizeProperty.get();
+	}
+
+	/*
+	 * SERVICE METHOD
+	 */
+	public void move() {
+		var x = getX();
+		var y = getY();
+		var size = getSize();
+		// identify if already bounded, if bounded, change direction
+		if (outOfBounds(x, dX, size, limits.getXLimit())) {
+			dX = -dX;
+		}
+		if (outOfBounds(y, dY, size, limits.getYLimit())) {
+			dY = -dY;
+		}
+		setX(x + dX);
+		setY(y + dY);
+	}
+
+	// Helper
+	private static boolean outOfBounds(int pos, int direction, int size, int upperLimit) {
+		/*
+		 * Like Ball, this is meant for a center-based Circle, so the
+		 * new 0 is the size/radius of the circle.
+		 */
+		var nextPos = pos + direction;
+		return nextPos <= size
+			|| nextPos + size >= upperLimit;
+	}
+
+}
@@ -13,11 +13,34 @@
  * RUNNING NOTES
  * In Eclipse, a new Maven run configuration is needed with javafx:run
  * as the goal.
+ * Passing --view=canvas (and optionally --balls=N) shows a whole
+ * population on one Canvas through WorldController instead; adding
+ * --record=FILE also records every tick to FILE, and --checkpoint=FILE
+ * restores the world from FILE (if it exists) and saves it there again
+ * on exit; --scene=FILE streams the starting balls from a CSV or binary
+ * scene (see SceneLoader) instead.
+ * Passing --world=WIDTHxHEIGHT gives the canvas view a world of its own
+ * size instead of the window's; drag to pan and scroll to zoom over it.
+ * Passing --tick=MS sets the simulation's tick period (16 by default,
+ * and it must be positive); the views interpolate between ticks, so a
+ * slow tick stays smooth.
+ * Passing --play=FILE (and optionally --speed=X) replays a recording
+ * through ReplayController.
  */
 package com.github.atollysis.ballbounceprogram.ball3_javafx;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import com.github.atollysis.ballbounceprogram.engine.SceneLoader;
+import com.github.atollysis.ballbounceprogram.engine.TrajectoryPlayer;
+import com.github.atollysis.ballbounceprogram.engine.TrajectoryRecorder;
+
 import javafx.application.Application;
 import javafx.geometry.Dimension2D;
+import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 
@@ -28,15 +51,39 @@ public class Main extends Application {
 	 */
 	private static final String TITLE = "Ball Application";
 	private static final Dimension2D DIMS = new Dimension2D(1200, 700);
+	private static final String PARAM_VIEW = "view";
+	private static final String PARAM_BALLS = "balls";
+	private static final String VIEW_CANVAS = "canvas";
+	private static final String DEFAULT_BALLS = "10000";
+	private static final String PARAM_RECORD = "record";
+	private static final String PARAM_CHECKPOINT = "checkpoint";
+	private static final String PARAM_SCENE = "scene";
+	private static final String PARAM_WORLD = "world";
+	private static final String WORLD_SEPARATOR = "x";
+	private static final int WORLD_DIMENSIONS = 2;
+	private static final String PARAM_PLAY = "play";
+	private static final String PARAM_SPEED = "speed";
+	private static final String DEFAULT_SPEED = "1";
+	private static final String PARAM_TICK = "tick";
+	private static final String DEFAULT_TICK = "16";
+	private static final String USAGE = "Usage: Main [--tick=MS]"
+			+ " [--view=canvas [--balls=N] [--world=WIDTHxHEIGHT] [--scene=FILE]"
+			+ " [--checkpoint=FILE] [--record=FILE]] | [--play=FILE [--speed=X]]";
+	// Open recording files (closed in stop())
+	private TrajectoryRecorder recorder;
+	private TrajectoryPlayer player;
+	private SceneLoader sceneLoader;
+	// Saved in stop()
+	private WorldController world;
+	private Path checkpoint;
 
 	/*
 	 * MAIN
 	 */
 	@Override
 	public void start(Stage primaryStage) throws Exception {
-		var controller = new BallController();
 		var scene = new Scene(
-				controller,
+				newController(getParameters().getNamed()),
 				DIMS.getWidth(),
 				DIMS.getHeight());
 		
@@ -44,6 +91,93 @@ public class Main extends Application {
 		primaryStage.setScene(scene);
 		primaryStage.show();
 	}
+	
+	private Parent newController(Map<String, String> params) throws IOException {
+		if (params.containsKey(PARAM_PLAY)) {
+			player = new TrajectoryPlayer(Path.of(params.get(PARAM_PLAY)));
+			return new ReplayController(
+					player,
+					Double.parseDouble(params.getOrDefault(PARAM_SPEED, DEFAULT_SPEED)));
+		}
+		var tickMillis = parsePositive(params.getOrDefault(PARAM_TICK, DEFAULT_TICK));
+		if (VIEW_CANVAS.equals(params.get(PARAM_VIEW))) {
+			if (params.containsKey(PARAM_CHECKPOINT)) {
+				checkpoint = Path.of(params.get(PARAM_CHECKPOINT));
+			}
+			var worldWidth = (int) DIMS.getWidth();
+			var worldHeight = (int) DIMS.getHeight();
+			if (params.containsKey(PARAM_WORLD)) {
+				var size = params.get(PARAM_WORLD).split(WORLD_SEPARATOR);
+				if (size.length != WORLD_DIMENSIONS) {
+					exitWithUsage();
+				}
+				worldWidth = parsePositive(size[0]);
+				worldHeight = parsePositive(size[1]);
+			}
+			WorldController controller;
+			if (checkpoint != null && Files.exists(checkpoint)) {
+				controller = WorldController.restore(checkpoint, tickMillis);
+			} else if (params.containsKey(PARAM_SCENE)) {
+				sceneLoader = new SceneLoader(Path.of(params.get(PARAM_SCENE)));
+				controller = WorldController.load(sceneLoader, worldWidth, worldHeight, tickMillis);
+			} else {
+				controller = new WorldController(
+						Integer.parseInt(params.getOrDefault(PARAM_BALLS, DEFAULT_BALLS)),
+						worldWidth,
+						worldHeight,
+						tickMillis);
+			}
+			if (params.containsKey(PARAM_WORLD)) {
+				controller.setWorldSize(worldWidth, worldHeight);
+			}
+			world = controller;
+			if (params.containsKey(PARAM_RECORD)) {
+				recorder = controller.startRecording(Path.of(params.get(PARAM_RECORD)));
+			}
+			return controller;
+		}
+		return new BallController(tickMillis);
+	}
+	
+	@Override
+	public void stop() throws Exception {
+		if (checkpoint != null) {
+			world.checkpoint(checkpoint).get();
+		}
+		if (recorder != null) {
+			world.stopRecording();
+			recorder.close();
+		}
+		if (player != null) {
+			player.close();
+		}
+		if (sceneLoader != null) {
+			sceneLoader.close();
+		}
+	}
+
+	/**
+	 * A positive int, or the usage and exit (e.g. a 0 tick period would
+	 * make every interpolation divide by zero, and a 0 world size would
+	 * leave no room for a ball).
+	 */
+	private static int parsePositive(String value) {
+		int number;
+		try {
+			number = Integer.parseInt(value);
+		} catch (NumberFormatException e) {
+			number = 0;
+		}
+		if (number <= 0) {
+			exitWithUsage();
+		}
+		return number;
+	}
+
+	private static void exitWithUsage() {
+		System.err.println(USAGE);
+		System.exit(1);
+	}
 
 	public static void main(String[] args) {
 		launch(args);
@@ -0,0 +1,103 @@
+/**
+ * ReplayController is the Controller component for replaying a
+ * recording made with --record (see TrajectoryRecorder):
+ * 		- The TrajectoryPlayer streams frames on its own thread into a
+ * 			SnapshotBuffer, at the requested speed.
+ * 		- The View is the same BallCanvasView as WorldController's.
+ * 		- One button pauses/resumes the replay.
+ * 
+ * STYLE NOTES
+ * As the most modern equivalent to the previous examples, it keeps the
+ * conventions from the PropertyChangeSupport example:
+ * 		- "this" keyword only appears when necessary.
+ * 		- "final" fields where applicable.
+ * 		- Initialization of fields in the declaration (except when it
+ * 			depends on the constructor).
+ * 		- Lambdas for action listeners.
+ * Additionally:
+ * 		- "var" where it's obvious.
+ * 		- Strictly no magic numbers.
+ */
+package com.github.atollysis.ballbounceprogram.ball3_javafx;
+
+import java.util.concurrent.TimeUnit;
+
+import com.github.atollysis.ballbounceprogram.engine.SnapshotBuffer;
+import com.github.atollysis.ballbounceprogram.engine.TickMetrics;
+import com.github.atollysis.ballbounceprogram.engine.TrajectoryPlayer;
+
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.VBox;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+
+class ReplayController extends BorderPane {
+
+	/*
+	 * FIELDS
+	 */
+	private static final Font FONT = Font.font("Monospaced", FontWeight.BOLD, 16);
+	private static final Insets INSETS_BOTTOM = new Insets(20);
+	// Back-end
+	private final SnapshotBuffer snapshots = new SnapshotBuffer();
+	private final TickMetrics metrics;
+	private final BallCanvasView view;
+	// GUI
+	private final Button btnPause = newButton("Pause");
+	private final Label lblEra;
+
+	/*
+	 * CONSTRUCTOR
+	 */
+	public ReplayController(TrajectoryPlayer player, double speed) {
+		metrics = TickMetrics.register("ball3_javafx.replay", player.getPeriodMillis());
+		// Interpolate at the replay's pace (as fast as possible: not at all)
+		var tickNanos = speed > 0
+				? (long) (TimeUnit.MILLISECONDS.toNanos(player.getPeriodMillis()) / speed)
+				: 0;
+		view = new BallCanvasView(snapshots, metrics, tickNanos);
+		lblEra = newLabel("#3: JavaFX Canvas (replay at " + speed + "x)");
+
+		setupLayout();
+
+		/*
+		 * USER INTERACTIONS
+		 */
+		btnPause.setOnAction(e -> {
+			player.setPaused(!player.isPaused());
+			btnPause.setText(player.isPaused() ? "Play" : "Pause");
+		});
+
+		player.play(snapshots, speed);
+	}
+
+	private void setupLayout() {
+		var bottomWrapper = new VBox();
+		bottomWrapper.setPadding(INSETS_BOTTOM);
+		bottomWrapper.setAlignment(Pos.CENTER);
+		bottomWrapper.getChildren().addAll(
+				lblEra,
+				btnPause);
+
+		setCenter(view);
+		setBottom(bottomWrapper);
+	}
+
+	// Static Helper GUI Methods
+	private static Button newButton(String txt) {
+		var btn = new Button(txt);
+		btn.setFont(FONT);
+		return btn;
+	}
+
+	private static Label newLabel(String txt) {
+		var lbl = new Label(txt);
+		lbl.setFont(FONT);
+		return lbl;
+	}
+
+}
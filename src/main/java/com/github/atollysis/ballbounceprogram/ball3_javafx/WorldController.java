@@ -0,0 +1,217 @@
+/**
+ * WorldController is the Controller component for large populations.
+ * It mirrors BallController, but:
+ * 		- The Model is a BallWorld (every ball in primitive arrays)
+ * 			instead of one Ball.
+ * 		- The View is a BallCanvasView (one Canvas) instead of a
+ * 			BallView (one bound Circle per ball).
+ * 		- The Model runs on its own SimulationThread instead of a
+ * 			Timeline, and the View draws its latest snapshot; a slow
+ * 			frame no longer slows the simulation, and the other way around.
+ * Tick and draw timings are published over JMX (TickMetrics), and the
+ * whole world can be saved to (and restored from) a Checkpoint. A
+ * large scene file can also be streamed in (SceneLoader) while the
+ * world already runs. By default the world is as large as the view;
+ * after setWorldSize() it keeps its own size, and the view's viewport
+ * pans and zooms over it.
+ * 
+ * STYLE NOTES
+ * As the most modern equivalent to the previous examples, it keeps the
+ * conventions from the PropertyChangeSupport example:
+ * 		- "this" keyword only appears when necessary.
+ * 		- "final" fields where applicable.
+ * 		- Initialization of fields in the declaration (except when it
+ * 			depends on the constructor).
+ * 		- Lambdas for action listeners.
+ * Additionally:
+ * 		- "var" where it's obvious.
+ * 		- Strictly no magic numbers.
+ */
+package com.github.atollysis.ballbounceprogram.ball3_javafx;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.github.atollysis.ballbounceprogram.engine.Anchor;
+import com.github.atollysis.ballbounceprogram.engine.BallWorld;
+import com.github.atollysis.ballbounceprogram.engine.Checkpoint;
+import com.github.atollysis.ballbounceprogram.engine.SceneLoader;
+import com.github.atollysis.ballbounceprogram.engine.Scenes;
+import com.github.atollysis.ballbounceprogram.engine.SimulationThread;
+import com.github.atollysis.ballbounceprogram.engine.TickMetrics;
+import com.github.atollysis.ballbounceprogram.engine.TrajectoryRecorder;
+
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+
+class WorldController extends BorderPane {
+
+	/*
+	 * FIELDS
+	 */
+	private static final Font FONT = Font.font("Monospaced", FontWeight.BOLD, 16);
+	private static final Insets INSETS_BOTTOM = new Insets(20);
+	private static final int BTN_SPACING = 20;
+	private static final int BALL_SIZE = 5;
+	private static final long SEED = 42;
+	// Back-end
+	private final int tickMillis;
+	private final TickMetrics metrics;
+	private final BallWorld model;
+	private final BallCanvasView view;
+	private final SimulationThread simulation;
+	// GUI
+	private final Button btnStep = newButton("Step");
+	private final Button btnPlay = newButton("Animate");
+	private final Label lblEra;
+	// The limits follow the view's size until setWorldSize()
+	private boolean followView = true;
+
+	/*
+	 * CONSTRUCTORS
+	 */
+	/**
+	 * The simulation ticks every tickMillis; the view draws in between
+	 * on every pulse.
+	 */
+	public WorldController(BallWorld model, int tickMillis) {
+		this(model, tickMillis, model.getCount() + " balls");
+	}
+
+	private WorldController(BallWorld model, int tickMillis, String population) {
+		this.model = model;
+		this.tickMillis = tickMillis;
+		metrics = TickMetrics.register("ball3_javafx.canvas", tickMillis);
+		simulation = new SimulationThread(model, tickMillis, metrics);
+		view = new BallCanvasView(
+				simulation.getSnapshots(),
+				metrics,
+				TimeUnit.MILLISECONDS.toNanos(tickMillis));
+		lblEra = newLabel("#3: JavaFX Canvas (" + population + ")");
+
+		setupLayout();
+
+		/*
+		 * USER INTERACTIONS
+		 */
+		btnStep.setOnAction(e -> simulation.step());
+
+		btnPlay.setOnAction(e -> simulation.setRunning(!simulation.isRunning()));
+
+		/*
+		 * Hook up view dimension / window dimension. The Model belongs
+		 * to the simulation thread, so the limits are passed through it.
+		 */
+		view.widthProperty().addListener((obs, oldVal, newVal) -> {
+			if (followView) {
+				simulation.setLimits(newVal.intValue(), (int) view.getHeight());
+			}
+		});
+
+		view.heightProperty().addListener((obs, oldVal, newVal) -> {
+			if (followView) {
+				simulation.setLimits((int) view.getWidth(), newVal.intValue());
+			}
+		});
+
+		simulation.start();
+	}
+
+	public WorldController(int balls, int width, int height, int tickMillis) {
+		this(Scenes.random(width, height, balls, BALL_SIZE, SEED, Anchor.CENTER), tickMillis);
+	}
+
+	/**
+	 * Restores the world saved by checkpoint().
+	 */
+	public static WorldController restore(Path file, int tickMillis) throws IOException {
+		return new WorldController(Checkpoint.read(file), tickMillis);
+	}
+
+	/**
+	 * Starts an empty world and streams the scene into it; balls appear
+	 * as they load. The caller closes the loader when done.
+	 */
+	public static WorldController load(SceneLoader scene, int width, int height, int tickMillis) {
+		var controller = new WorldController(
+				new BallWorld(width, height, 0, Anchor.CENTER),
+				tickMillis,
+				scene.getFile().getFileName().toString());
+		controller.simulation.load(scene);
+		return controller;
+	}
+
+	/**
+	 * Fixes the world's size, independent of the view's from now on.
+	 */
+	public void setWorldSize(int width, int height) {
+		followView = false;
+		simulation.setLimits(width, height);
+	}
+
+	/**
+	 * Records every following tick to the file; the caller closes the
+	 * returned recorder when done.
+	 */
+	public TrajectoryRecorder startRecording(Path file) throws IOException {
+		var recorder = new TrajectoryRecorder(file, model.getAnchor(), tickMillis);
+		simulation.setRecorder(recorder);
+		return recorder;
+	}
+
+	/**
+	 * Stops handing ticks to the recorder (before closing it).
+	 */
+	public void stopRecording() {
+		simulation.setRecorder(null);
+	}
+
+	/**
+	 * Saves the whole world between two ticks; the returned future
+	 * completes once the file is written.
+	 */
+	public CompletableFuture<Void> checkpoint(Path file) {
+		return simulation.checkpoint(file);
+	}
+
+	private void setupLayout() {
+		var btnWrapper = new HBox(BTN_SPACING);
+		btnWrapper.setAlignment(Pos.CENTER);
+		btnWrapper.getChildren().addAll(
+				btnStep,
+				btnPlay);
+
+		var bottomWrapper = new VBox();
+		bottomWrapper.setPadding(INSETS_BOTTOM);
+		bottomWrapper.setAlignment(Pos.CENTER);
+		bottomWrapper.getChildren().addAll(
+				lblEra,
+				btnWrapper);
+
+		setCenter(view);
+		setBottom(bottomWrapper);
+	}
+
+	// Static Helper GUI Methods
+	private static Button newButton(String txt) {
+		var btn = new Button(txt);
+		btn.setFont(FONT);
+		return btn;
+	}
+
+	private static Label newLabel(String txt) {
+		var lbl = new Label(txt);
+		lbl.setFont(FONT);
+		return lbl;
+	}
+
+}
@@ -0,0 +1,49 @@
+/**
+ * WorldLimits holds the size of the area the balls bounce in, shared by
+ * every LazyBall of a population instead of two properties per ball.
+ * 		- Set by whoever owns the population (e.g. when its View is
+ * 			resized); nothing in the app does yet, see LazyBall.
+ * 		- Read by LazyBall.move() on the thread that sets it.
+ * 
+ * STYLE NOTES
+ * As the most modern equivalent to the previous examples, it keeps the
+ * conventions from the PropertyChangeSupport example:
+ * 		- "this" keyword only appears when necessary.
+ * 		- "final" fields where applicable.
+ * 		- Initialization of fields in the declaration.
+ * Additionally:
+ * 		- Strictly no magic numbers.
+ */
+package com.github.atollysis.ballbounceprogram.ball3_javafx;
+
+class WorldLimits {
+
+	/*
+	 * FIELDS
+	 */
+	private int xLimit;
+	private int yLimit;
+
+	/*
+	 * GETTERS
+	 */
+	public int getXLimit() {
+		return xLimit;
+	}
+
+	public int getYLimit() {
+		return yLimit;
+	}
+
+	/*
+	 * SETTERS
+	 */
+	public void setXLimit(int xLimit) {
+		this.xLimit = xLimit;
+	}
+
+	public void setYLimit(int yLimit) {
+		this.yLimit = yLimit;
+	}
+
+}
@@ -0,0 +1,46 @@
+/**
+ * Anchor describes what a ball's (x, y) and size mean, so one BallWorld
+ * can follow either example's coordinate convention:
+ * 		- TOP_LEFT: (x, y) is the top-left corner and size the diameter,
+ * 			like the ovals drawn in ball1_observable/ball2_propertychange.
+ * 		- CENTER: (x, y) is the center and size the radius, like the
+ * 			Circle bound in ball3_javafx.
+ * Centers and radii are returned doubled, so TOP_LEFT balls with an odd
+ * size still have an exact integer center.
+ */
+package com.github.atollysis.ballbounceprogram.engine;
+
+public enum Anchor {
+
+	TOP_LEFT,
+	CENTER;
+
+	/*
+	 * SERVICE METHODS
+	 */
+	/**
+	 * The position at or below which a ball bounces off the
+	 * left/top wall (see Ball.outOfBounds() in each example).
+	 */
+	public int lowerBound(int size) {
+		return this == CENTER ? size : 0;
+	}
+
+	public int doubledCenter(int pos, int size) {
+		return this == CENTER ? 2 * pos : 2 * pos + size;
+	}
+
+	public int doubledRadius(int size) {
+		return this == CENTER ? 2 * size : size;
+	}
+
+	/**
+	 * The anchor with the given ordinal (as written to files), or null if
+	 * there is none, e.g. in a corrupt file.
+	 */
+	static Anchor fromOrdinal(int ordinal) {
+		var anchors = values();
+		return ordinal >= 0 && ordinal < anchors.length ? anchors[ordinal] : null;
+	}
+
+}
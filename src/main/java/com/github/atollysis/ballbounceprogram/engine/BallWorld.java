@@ -0,0 +1,395 @@
+/**
+ * BallWorld is an alternative Model component for large populations.
+ * Instead of one Ball object per ball, the whole population is stored
+ * as primitive int[] columns (a "structure of arrays"):
+ * 		- One column each for x, y, dX, dY and size, indexed by ball.
+ * 		- step() moves every ball in one tight loop, using the same
+ * 			reflection rule as Ball.outOfBounds() in the examples.
+ * 		- The Anchor picks the coordinate convention: TOP_LEFT (default)
+ * 			like ball1/ball2, or CENTER like ball3.
+ * 		- Optional ball-to-ball collisions (see CollisionGrid), resolved
+ * 			before the walls are checked.
+ * 		- Without collisions, advance()/positionAt() jump any number of
+ * 			ticks in O(1) per ball (see Bounce), with exactly the state
+ * 			that calling step() that many times would give.
+ * 		- When the JVM runs with "--add-modules jdk.incubator.vector",
+ * 			the move loop runs whole SIMD lanes at once (see VectorKernel);
+ * 			otherwise, or for the leftover balls, it runs the scalar loop.
+ * 			Both give exactly the same results.
+ * 		- No notification; Views read the columns after each step.
+ * 		- Nothing is allocated per tick; the columns only grow in add().
+ *
+ * STYLE NOTES
+ * As a shared engine used by the examples, it keeps the conventions
+ * of the most modern example (ball3_javafx):
+ * 		- "this" keyword only appears when necessary.
+ * 		- "final" fields where applicable.
+ * 		- Initialization of fields in the declaration.
+ * 		- Strictly no magic numbers.
+ * Additionally:
+ * 		- Public, since it is used from outside its own package.
+ */
+package com.github.atollysis.ballbounceprogram.engine;
+
+import java.util.Arrays;
+
+public class BallWorld {
+
+	/*
+	 * FIELDS
+	 */
+	private static final int DEFAULT_CAPACITY = 16;
+	private static final int GROWTH_FACTOR = 2;
+	static final int COLUMNS = 5;
+	private static final boolean VECTOR_AVAILABLE =
+			ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+	// Columns
+	private int[] x;
+	private int[] y;
+	private int[] dX;
+	private int[] dY;
+	private int[] size;
+	private int count;
+	// World
+	private final Anchor anchor;
+	private int xLimit;
+	private int yLimit;
+	private long tick;
+	// Collisions (created when first enabled)
+	private CollisionGrid collisions;
+	// Move loop
+	private boolean vectorized = VECTOR_AVAILABLE;
+
+	/*
+	 * CONSTRUCTORS
+	 */
+	public BallWorld(int xLimit, int yLimit, int capacity, Anchor anchor) {
+		this.anchor = anchor;
+		this.xLimit = xLimit;
+		this.yLimit = yLimit;
+		x = new int[capacity];
+		y = new int[capacity];
+		dX = new int[capacity];
+		dY = new int[capacity];
+		size = new int[capacity];
+	}
+
+	public BallWorld(int xLimit, int yLimit, int capacity) {
+		this(xLimit, yLimit, capacity, Anchor.TOP_LEFT);
+	}
+
+	public BallWorld(int xLimit, int yLimit) {
+		this(xLimit, yLimit, DEFAULT_CAPACITY);
+	}
+
+	/*
+	 * POPULATION
+	 */
+	/**
+	 * Adds a ball with the same arguments as the Ball constructor
+	 * and returns its index.
+	 */
+	public int add(int x, int y, int dX, int dY, int size) {
+		ensureCapacity(count + 1);
+		this.x[count] = x;
+		this.y[count] = y;
+		this.dX[count] = dX;
+		this.dY[count] = dY;
+		this.size[count] = size;
+		return count++;
+	}
+
+	/**
+	 * Removes a ball by moving the last ball into its slot (so indices
+	 * of other balls may change).
+	 */
+	void remove(int ball) {
+		var last = --count;
+		x[ball] = x[last];
+		y[ball] = y[last];
+		dX[ball] = dX[last];
+		dY[ball] = dY[last];
+		size[ball] = size[last];
+	}
+
+	/**
+	 * Makes room for the given number of balls at the end and returns
+	 * the index of the first; the caller fills their slots through
+	 * columns() (for bulk loaders).
+	 */
+	int extend(int balls) {
+		ensureCapacity(count + balls);
+		var first = count;
+		count += balls;
+		return first;
+	}
+
+	public void ensureCapacity(int capacity) {
+		if (capacity <= x.length) {
+			return;
+		}
+		var newCapacity = Math.max(capacity, x.length * GROWTH_FACTOR);
+		x = Arrays.copyOf(x, newCapacity);
+		y = Arrays.copyOf(y, newCapacity);
+		dX = Arrays.copyOf(dX, newCapacity);
+		dY = Arrays.copyOf(dY, newCapacity);
+		size = Arrays.copyOf(size, newCapacity);
+	}
+
+	/*
+	 * GETTERS
+	 */
+	public int getCount() {
+		return count;
+	}
+
+	public int getX(int ball) {
+		return x[ball];
+	}
+
+	public int getY(int ball) {
+		return y[ball];
+	}
+
+	public int getDX(int ball) {
+		return dX[ball];
+	}
+
+	public int getDY(int ball) {
+		return dY[ball];
+	}
+
+	public int getSize(int ball) {
+		return size[ball];
+	}
+
+	public Anchor getAnchor() {
+		return anchor;
+	}
+
+	public boolean isColliding() {
+		return collisions != null;
+	}
+
+	public boolean isVectorized() {
+		return vectorized;
+	}
+
+	public static boolean isVectorAvailable() {
+		return VECTOR_AVAILABLE;
+	}
+
+	public int getXLimit() {
+		return xLimit;
+	}
+
+	public int getYLimit() {
+		return yLimit;
+	}
+
+	public long getTick() {
+		return tick;
+	}
+
+	/**
+	 * Bulk copy of the position and size columns (for snapshots).
+	 */
+	void copyColumns(int[] x, int[] y, int[] size) {
+		System.arraycopy(this.x, 0, x, 0, count);
+		System.arraycopy(this.y, 0, y, 0, count);
+		System.arraycopy(this.size, 0, size, 0, count);
+	}
+
+	/**
+	 * The largest |dX| or |dY|, i.e. how far any ball can move in one
+	 * tick.
+	 */
+	int maxSpeed() {
+		var max = 0;
+		for (int i = 0; i < count; i++) {
+			max = Math.max(max, Math.max(Math.abs(dX[i]), Math.abs(dY[i])));
+		}
+		return max;
+	}
+
+	/**
+	 * The live column arrays, in the order x, y, dX, dY, size (for
+	 * checkpoints). Only the first getCount() slots are in use.
+	 */
+	int[][] columns() {
+		return new int[][] {x, y, dX, dY, size};
+	}
+
+	/*
+	 * SETTERS
+	 */
+	/**
+	 * Overwrites a ball's state (for engines that move balls themselves).
+	 */
+	void setState(int ball, int x, int y, int dX, int dY) {
+		this.x[ball] = x;
+		this.y[ball] = y;
+		this.dX[ball] = dX;
+		this.dY[ball] = dY;
+	}
+
+	void setTick(long tick) {
+		this.tick = tick;
+	}
+
+	/**
+	 * Takes the first count slots of the (already filled) columns as
+	 * the population, at the given tick.
+	 */
+	void restore(int count, long tick) {
+		this.count = count;
+		this.tick = tick;
+	}
+
+	public void setLimits(int xLimit, int yLimit) {
+		this.xLimit = xLimit;
+		this.yLimit = yLimit;
+	}
+
+	public void setColliding(boolean colliding) {
+		collisions = colliding ? new CollisionGrid() : null;
+	}
+
+	/**
+	 * Picks the SIMD or the scalar move loop; stays scalar when the
+	 * Vector API is not available.
+	 */
+	public void setVectorized(boolean vectorized) {
+		this.vectorized = vectorized && VECTOR_AVAILABLE;
+	}
+
+	/*
+	 * SERVICE METHOD
+	 */
+	public void step() {
+		resolveCollisions();
+		moveRange(0, count);
+		endTick();
+	}
+
+	/**
+	 * Same as calling step() the given number of times (collisions must
+	 * be off, since they depend on every other ball).
+	 */
+	public void advance(long ticks) {
+		checkClosedForm();
+		advanceRange(0, count, ticks);
+		tick += ticks;
+	}
+
+	/**
+	 * Moves balls [from, to) the given number of ticks ahead, without
+	 * changing the tick counter (so balls added late can catch up).
+	 */
+	void advanceRange(int from, int to, long ticks) {
+		for (int i = from; i < to; i++) {
+			var lo = anchor.lowerBound(size[i]);
+			var xState = Bounce.advance(x[i], dX[i], lo, xLimit - size[i], ticks);
+			var yState = Bounce.advance(y[i], dY[i], lo, yLimit - size[i], ticks);
+			x[i] = Bounce.pos(xState);
+			dX[i] = Bounce.dir(xState);
+			y[i] = Bounce.pos(yState);
+			dY[i] = Bounce.dir(yState);
+		}
+	}
+
+	/**
+	 * The {x, y} a ball will have at the given (current or later) tick,
+	 * without changing the world.
+	 */
+	public int[] positionAt(int ball, long tick) {
+		checkClosedForm();
+		if (tick < this.tick) {
+			throw new IllegalArgumentException(
+					"Tick " + tick + " is before the current tick " + this.tick);
+		}
+		var ticks = tick - this.tick;
+		var lo = anchor.lowerBound(size[ball]);
+		return new int[] {
+				Bounce.pos(Bounce.advance(x[ball], dX[ball], lo, xLimit - size[ball], ticks)),
+				Bounce.pos(Bounce.advance(y[ball], dY[ball], lo, yLimit - size[ball], ticks))};
+	}
+
+	private void checkClosedForm() {
+		if (collisions != null) {
+			throw new IllegalStateException("Skipping ahead needs collisions to be off");
+		}
+	}
+
+	/*
+	 * STEP PHASES
+	 * Package-private so ParallelStepper can run the collision strips
+	 * and moveRange() on chunks.
+	 */
+	void resolveCollisions() {
+		if (collisions != null) {
+			collisions.resolve(x, y, dX, dY, size, count, anchor, xLimit, yLimit);
+		}
+	}
+
+	/**
+	 * Same as resolveCollisions() in parts: after this, resolve every
+	 * strip, then every boundary (see CollisionGrid). Returns the number
+	 * of strips, 0 when there is nothing to resolve.
+	 */
+	int prepareCollisions() {
+		return collisions != null
+				? collisions.prepare(x, y, size, count, anchor, xLimit, yLimit)
+				: 0;
+	}
+
+	void resolveCollisionStrip(int strip) {
+		collisions.resolveStrip(strip, dX, dY);
+	}
+
+	void resolveCollisionBoundary(int strip) {
+		collisions.resolveBoundary(strip, dX, dY);
+	}
+
+	/**
+	 * Moves balls [from, to). Each ball only touches its own slots in
+	 * the columns, so disjoint ranges can be moved concurrently.
+	 */
+	void moveRange(int from, int to) {
+		// Locals keep the loop free of field reloads
+		final int[] x = this.x;
+		final int[] y = this.y;
+		final int[] dX = this.dX;
+		final int[] dY = this.dY;
+		final int[] size = this.size;
+		final int xLimit = this.xLimit;
+		final int yLimit = this.yLimit;
+		final boolean centered = anchor == Anchor.CENTER;
+
+		var start = vectorized
+				? VectorKernel.moveRange(x, y, dX, dY, size, from, to, xLimit, yLimit, centered)
+				: from;
+		for (int i = start; i < to; i++) {
+			var s = size[i];
+			var lo = centered ? s : 0;
+			var dx = dX[i];
+			var dy = dY[i];
+			// flipped directions are the only ones written back
+			if (Bounce.direction(x[i], dx, lo, xLimit - s) != dx) {
+				dx = -dx;
+				dX[i] = dx;
+			}
+			if (Bounce.direction(y[i], dy, lo, yLimit - s) != dy) {
+				dy = -dy;
+				dY[i] = dy;
+			}
+			x[i] += dx;
+			y[i] += dy;
+		}
+	}
+
+	void endTick() {
+		tick++;
+	}
+
+}
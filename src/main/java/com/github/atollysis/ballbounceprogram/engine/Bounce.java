@@ -0,0 +1,140 @@
+/**
+ * Bounce solves one axis of BallWorld.step() in closed form. Per tick,
+ * an axis does exactly what Ball.move() does:
+ * 		next = pos + dir
+ * 		if (next >= hi || next <= lo) dir = -dir	(hi = limit - size)
+ * 		pos += dir
+ * Between two flips the motion is linear, so a whole "segment" (the
+ * straight run plus the flipping tick) is computed in O(1):
+ * 		- ticksToFlip() finds the tick on which the next flip happens.
+ * 		- A k-tick segment turns (pos, dir) into (pos + (k - 2) * dir, -dir).
+ * Since every move changes pos by exactly |dir|, pos keeps its remainder
+ * mod |dir|, so after a couple of bounces the segments repeat with a
+ * period of two. advance() detects that cycle and skips whole cycles at
+ * once, which makes any jump O(1), with exactly the state that stepping
+ * would reach (including starts outside the walls).
+ * direction() is that per-tick rule itself, shared by every engine that
+ * steps balls one tick at a time (BallWorld, OffHeapBallStore).
+ * 
+ * STYLE NOTES
+ * Keeps the conventions of the other engine classes; package-private
+ * static helpers only. Results are returned packed in a long
+ * (pos in the high 32 bits, dir in the low 32 bits) so nothing is
+ * allocated per ball.
+ */
+package com.github.atollysis.ballbounceprogram.engine;
+
+class Bounce {
+
+	/*
+	 * FIELDS
+	 */
+	static final long NEVER = Long.MAX_VALUE;
+	private static final long INT_MASK = 0xFFFF_FFFFL;
+	// Segments looked at before giving up on finding the cycle
+	private static final int MAX_WARMUP_SEGMENTS = 16;
+
+	/*
+	 * CONSTRUCTOR
+	 */
+	private Bounce() {
+	}
+
+	/*
+	 * SERVICE METHODS
+	 */
+	/**
+	 * The direction one tick moves with: flipped if the next position
+	 * reaches a wall.
+	 */
+	static int direction(int pos, int dir, int lo, int hi) {
+		var next = pos + dir;
+		return next >= hi || next <= lo ? -dir : dir;
+	}
+
+	/**
+	 * The number of ticks until (and including) the tick that flips the
+	 * direction, or NEVER if the direction can never change.
+	 */
+	static long ticksToFlip(int pos, int dir, int lo, int hi) {
+		if (dir > 0) {
+			// the lower wall can only trigger on the first tick
+			if ((long) pos + dir <= lo) {
+				return 1;
+			}
+			return Math.max(1, ceilDiv((long) hi - pos, dir));
+		}
+		if (dir < 0) {
+			var speed = -(long) dir;
+			// the upper wall can only trigger on the first tick
+			if (pos - speed >= hi) {
+				return 1;
+			}
+			return Math.max(1, ceilDiv(pos - (long) lo, speed));
+		}
+		// dir == 0: flipping 0 changes nothing
+		return NEVER;
+	}
+
+	/**
+	 * The (pos, dir) reached after the given number of ticks, packed.
+	 */
+	static long advance(int pos, int dir, int lo, int hi, long ticks) {
+		var remaining = ticks;
+		// state (and length) of the two previous segments
+		long twoBack = 0;
+		long oneBack = 0;
+		long twoBackLength = 0;
+		long oneBackLength = 0;
+		var segments = 0;
+
+		while (remaining > 0) {
+			var length = ticksToFlip(pos, dir, lo, hi);
+			if (length > remaining) {
+				// no flip before the end: straight line
+				pos += (int) (remaining * dir);
+				break;
+			}
+
+			var state = pack(pos, dir);
+			if (segments >= 2 && segments <= MAX_WARMUP_SEGMENTS && state == twoBack) {
+				// back where we were two segments ago: skip whole cycles
+				remaining %= twoBackLength + oneBackLength;
+				// only do this once
+				segments = MAX_WARMUP_SEGMENTS + 1;
+				continue;
+			}
+			twoBack = oneBack;
+			twoBackLength = oneBackLength;
+			oneBack = state;
+			oneBackLength = length;
+			segments++;
+
+			pos += (int) ((length - 2) * dir);
+			dir = -dir;
+			remaining -= length;
+		}
+		return pack(pos, dir);
+	}
+
+	/*
+	 * PACKING HELPERS
+	 */
+	static long pack(int pos, int dir) {
+		return ((long) pos << Integer.SIZE) | (dir & INT_MASK);
+	}
+
+	static int pos(long packed) {
+		return (int) (packed >> Integer.SIZE);
+	}
+
+	static int dir(long packed) {
+		return (int) packed;
+	}
+
+	// Helper
+	private static long ceilDiv(long a, long b) {
+		return -Math.floorDiv(-a, b);
+	}
+
+}
@@ -0,0 +1,165 @@
+/**
+ * Checkpoint saves a whole BallWorld to a file and restores it:
+ * 		- Everything step() depends on is written: every column (x, y,
+ * 			dX, dY, size), the anchor, limits, collision setting and the
+ * 			tick counter, so a restored world continues exactly where
+ * 			the saved one was.
+ * 		- The columns are copied in bulk between the arrays and a
+ * 			memory-mapped view of the file (IntBuffer get/put), so a
+ * 			10M-ball checkpoint (200MB) loads at memory-copy speed.
+ * 		- The header starts with a magic number and a version, so older
+ * 			or foreign files are rejected instead of misread; a header
+ * 			that does not match the file's size is rejected as corrupt.
+ * 		- write() fills a temporary file next to the target, forces it to
+ * 			disk and only then moves it over the target, so a crash while
+ * 			saving leaves the previous checkpoint intact.
+ * 
+ * FILE FORMAT (little-endian)
+ * 		int magic, int version, int anchor ordinal, int flags,
+ * 		int xLimit, int yLimit, long tick, int count,
+ * 		then count ints of x, y, dX, dY and size, one column at a time.
+ * 
+ * STYLE NOTES
+ * Keeps the conventions of the other engine classes; static methods
+ * only, never instantiated.
+ */
+package com.github.atollysis.ballbounceprogram.engine;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+public class Checkpoint {
+
+	/*
+	 * FIELDS
+	 */
+	// "BBCK"
+	static final int MAGIC = 0x4242434B;
+	static final int VERSION = 1;
+	static final int HEADER_BYTES = 6 * Integer.BYTES + Long.BYTES + Integer.BYTES;
+	private static final int FLAG_COLLIDING = 1;
+	private static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+	// Largest part of a column mapped at once (1GB)
+	private static final int MAX_MAPPED_INTS = 1 << 28;
+
+	/*
+	 * CONSTRUCTOR
+	 */
+	private Checkpoint() {
+	}
+
+	/*
+	 * SERVICE METHODS
+	 */
+	/**
+	 * Writes the world to the file, atomically replacing it if it exists.
+	 * Must run on the thread that steps the world.
+	 */
+	public static void write(BallWorld world, Path file) throws IOException {
+		var directory = file.toAbsolutePath().getParent();
+		var temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+		try {
+			writeTo(world, temporary);
+			Files.move(temporary, file,
+					StandardCopyOption.ATOMIC_MOVE,
+					StandardCopyOption.REPLACE_EXISTING);
+		} finally {
+			Files.deleteIfExists(temporary);
+		}
+	}
+
+	private static void writeTo(BallWorld world, Path file) throws IOException {
+		var count = world.getCount();
+		try (var channel = FileChannel.open(file,
+				StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.READ,
+				StandardOpenOption.WRITE)) {
+			var header = channel.map(MapMode.READ_WRITE, 0, HEADER_BYTES);
+			header.order(ORDER)
+					.putInt(MAGIC)
+					.putInt(VERSION)
+					.putInt(world.getAnchor().ordinal())
+					.putInt(world.isColliding() ? FLAG_COLLIDING : 0)
+					.putInt(world.getXLimit())
+					.putInt(world.getYLimit())
+					.putLong(world.getTick())
+					.putInt(count);
+			header.force();
+
+			var position = (long) HEADER_BYTES;
+			for (var column : world.columns()) {
+				for (int from = 0; from < count; from += MAX_MAPPED_INTS) {
+					var length = Math.min(MAX_MAPPED_INTS, count - from);
+					var mapped = channel.map(MapMode.READ_WRITE, position, (long) length * Integer.BYTES);
+					mapped.order(ORDER)
+							.asIntBuffer()
+							.put(column, from, length);
+					mapped.force();
+					position += (long) length * Integer.BYTES;
+				}
+			}
+			channel.force(true);
+		}
+	}
+
+	/**
+	 * Reads a world written by write().
+	 */
+	public static BallWorld read(Path file) throws IOException {
+		try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			var fileSize = channel.size();
+			if (fileSize < HEADER_BYTES) {
+				throw new IOException("Not a checkpoint file: " + file);
+			}
+			var header = channel.map(MapMode.READ_ONLY, 0, HEADER_BYTES).order(ORDER);
+			if (header.getInt() != MAGIC) {
+				throw new IOException("Not a checkpoint file: " + file);
+			}
+			var version = header.getInt();
+			if (version != VERSION) {
+				throw new IOException("Unsupported checkpoint version: " + version);
+			}
+			var anchor = Anchor.fromOrdinal(header.getInt());
+			var flags = header.getInt();
+			var xLimit = header.getInt();
+			var yLimit = header.getInt();
+			var tick = header.getLong();
+			var count = header.getInt();
+			if (anchor == null || count < 0) {
+				throw new IOException("Corrupt checkpoint file: " + file);
+			}
+			var columns = BallWorld.COLUMNS;
+			var expectedSize = HEADER_BYTES + (long) columns * count * Integer.BYTES;
+			if (fileSize < expectedSize) {
+				throw new IOException("Truncated checkpoint file: " + file);
+			}
+			if (fileSize > expectedSize) {
+				throw new IOException("Corrupt checkpoint file (" + fileSize + " bytes for "
+						+ count + " balls): " + file);
+			}
+
+			var world = new BallWorld(xLimit, yLimit, count, anchor);
+			var position = (long) HEADER_BYTES;
+			for (var column : world.columns()) {
+				for (int from = 0; from < count; from += MAX_MAPPED_INTS) {
+					var length = Math.min(MAX_MAPPED_INTS, count - from);
+					channel.map(MapMode.READ_ONLY, position, (long) length * Integer.BYTES)
+							.order(ORDER)
+							.asIntBuffer()
+							.get(column, from, length);
+					position += (long) length * Integer.BYTES;
+				}
+			}
+			world.restore(count, tick);
+			world.setColliding((flags & FLAG_COLLIDING) != 0);
+			return world;
+		}
+	}
+
+}
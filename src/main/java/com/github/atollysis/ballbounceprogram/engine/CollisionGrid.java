@@ -0,0 +1,323 @@
+/**
+ * CollisionGrid is the ball-to-ball collision step of a BallWorld:
+ * 		- Broad phase: a uniform grid rebuilt every tick with a counting
+ * 			sort, so only balls in neighbouring cells are compared.
+ * 			Cells are at least one (largest) diameter wide, which keeps
+ * 			the work close to linear in the number of balls.
+ * 		- The grid's rows are cut into strips of STRIP_ROWS rows. Pairs
+ * 			within a strip are resolved strip by strip, then the pairs
+ * 			across each boundary between two strips. Strips (and then
+ * 			boundaries) touch disjoint balls, so ParallelStepper can run
+ * 			them concurrently. The strips do not depend on the number of
+ * 			threads, so the result is the same either way.
+ * 		- Narrow phase: exact integer overlap test on doubled centers.
+ * 		- Response: equal-mass elastic collision, only for pairs that are
+ * 			moving towards each other. The ideal exchange (the relative
+ * 			velocity along the line of centers) is rarely a whole number,
+ * 			so the closest integer exchange that conserves energy exactly
+ * 			is used instead: a point on the circle with the relative
+ * 			velocity as diameter, searched along its shorter axis. The
+ * 			same exchange is added to one ball and taken from the other,
+ * 			so momentum is exact too, and it always pushes the balls
+ * 			apart, so a glancing hit never rounds to nothing.
+ * All arrays are reused between ticks and only grow with the population.
+ * 
+ * STYLE NOTES
+ * Keeps the conventions of the other engine classes; package-private,
+ * since only BallWorld (and ParallelStepper through it) uses it.
+ */
+package com.github.atollysis.ballbounceprogram.engine;
+
+import java.util.Arrays;
+
+class CollisionGrid {
+
+	/*
+	 * FIELDS
+	 */
+	// Never more cells than this many per ball
+	private static final int MAX_CELLS_PER_BALL = 4;
+	private static final int MIN_CELL_SIZE = 1;
+	// At least 2, so no two boundaries share a row
+	private static final int STRIP_ROWS = 8;
+	// Grid (in doubled coordinates)
+	private int cellSize;
+	private int columns;
+	private int rows;
+	private int[] cellStart = new int[1];
+	// Per ball
+	private int[] cellOf = new int[0];
+	private int[] sorted = new int[0];
+	// Per ball, in cell order (index into "sorted")
+	private int[] centerX = new int[0];
+	private int[] centerY = new int[0];
+	private int[] radius = new int[0];
+
+	/*
+	 * SERVICE METHODS
+	 */
+	/**
+	 * Finds every overlapping pair and updates their dX/dY in place.
+	 * Positions are not changed; BallWorld moves the balls afterwards.
+	 */
+	void resolve(
+			int[] x, int[] y, int[] dX, int[] dY, int[] size, int count,
+			Anchor anchor, int xLimit, int yLimit) {
+		var strips = prepare(x, y, size, count, anchor, xLimit, yLimit);
+		for (int strip = 0; strip < strips; strip++) {
+			resolveStrip(strip, dX, dY);
+		}
+		for (int strip = 0; strip + 1 < strips; strip++) {
+			resolveBoundary(strip, dX, dY);
+		}
+	}
+
+	/**
+	 * Rebuilds the grid for this tick and returns the number of strips
+	 * (0 if there is nothing to collide).
+	 */
+	int prepare(
+			int[] x, int[] y, int[] size, int count,
+			Anchor anchor, int xLimit, int yLimit) {
+		if (count < 2) {
+			return 0;
+		}
+		rebuild(x, y, size, count, anchor, xLimit, yLimit);
+		return Math.ceilDiv(rows, STRIP_ROWS);
+	}
+
+	/**
+	 * Resolves the pairs with both balls in the strip's rows.
+	 */
+	void resolveStrip(int strip, int[] dX, int[] dY) {
+		var first = strip * STRIP_ROWS;
+		var end = Math.min(rows, first + STRIP_ROWS);
+		for (int row = first; row < end; row++) {
+			resolveRow(row, true, row + 1 < end, dX, dY);
+		}
+	}
+
+	/**
+	 * Resolves the pairs across the boundary below the strip, i.e.
+	 * between its last row and the first row of the next strip.
+	 */
+	void resolveBoundary(int strip, int[] dX, int[] dY) {
+		resolveRow((strip + 1) * STRIP_ROWS - 1, false, true, dX, dY);
+	}
+
+	/*
+	 * Walks a row's cells in order and only looks "forward" (same cell
+	 * and right if withinRow, the three cells below if withBelow), so
+	 * every pair is seen once and memory is read mostly in sequence.
+	 */
+	private void resolveRow(int row, boolean withinRow, boolean withBelow, int[] dX, int[] dY) {
+		for (int column = 0; column < columns; column++) {
+			var cell = row * columns + column;
+			var from = cellStart[cell];
+			var to = cellStart[cell + 1];
+			if (from == to) {
+				continue;
+			}
+			var hasLeft = column > 0;
+			var hasRight = column + 1 < columns;
+			for (int k = from; k < to; k++) {
+				if (withinRow) {
+					collideWithCell(k, k + 1, to, dX, dY);
+					if (hasRight) {
+						collideWithCell(k, cell + 1, dX, dY);
+					}
+				}
+				if (withBelow) {
+					if (hasLeft) {
+						collideWithCell(k, cell + columns - 1, dX, dY);
+					}
+					collideWithCell(k, cell + columns, dX, dY);
+					if (hasRight) {
+						collideWithCell(k, cell + columns + 1, dX, dY);
+					}
+				}
+			}
+		}
+	}
+
+	private void collideWithCell(int k, int cell, int[] dX, int[] dY) {
+		collideWithCell(k, cellStart[cell], cellStart[cell + 1], dX, dY);
+	}
+
+	private void collideWithCell(int k, int from, int to, int[] dX, int[] dY) {
+		for (int other = from; other < to; other++) {
+			collide(k, other, dX, dY);
+		}
+	}
+
+	/*
+	 * BROAD PHASE
+	 */
+	private void rebuild(
+			int[] x, int[] y, int[] size, int count,
+			Anchor anchor, int xLimit, int yLimit) {
+		ensureBallCapacity(count);
+
+		// Cell size: largest doubled diameter, so overlaps stay in 3x3 cells
+		var maxDiameter = MIN_CELL_SIZE;
+		for (int i = 0; i < count; i++) {
+			maxDiameter = Math.max(maxDiameter, 2 * anchor.doubledRadius(size[i]));
+		}
+		var worldWidth = Math.max(MIN_CELL_SIZE, 2 * xLimit);
+		var worldHeight = Math.max(MIN_CELL_SIZE, 2 * yLimit);
+		cellSize = maxDiameter;
+		while ((long) cells(worldWidth) * cells(worldHeight)
+				> (long) MAX_CELLS_PER_BALL * count) {
+			cellSize *= 2;
+		}
+		columns = cells(worldWidth);
+		rows = cells(worldHeight);
+		var cellCount = columns * rows;
+		if (cellStart.length < cellCount + 1) {
+			cellStart = new int[cellCount + 1];
+		} else {
+			Arrays.fill(cellStart, 0, cellCount + 1, 0);
+		}
+
+		// Counting sort of balls by cell
+		for (int i = 0; i < count; i++) {
+			var cell = cellIndex(
+					anchor.doubledCenter(x[i], size[i]),
+					anchor.doubledCenter(y[i], size[i]));
+			cellOf[i] = cell;
+			cellStart[cell + 1]++;
+		}
+		for (int c = 0; c < cellCount; c++) {
+			cellStart[c + 1] += cellStart[c];
+		}
+		for (int i = 0; i < count; i++) {
+			// cellStart[cell] is used as the insert cursor, then restored
+			sorted[cellStart[cellOf[i]]++] = i;
+		}
+		for (int c = cellCount; c > 0; c--) {
+			cellStart[c] = cellStart[c - 1];
+		}
+		cellStart[0] = 0;
+
+		// Copy what the narrow phase reads into cell order
+		for (int k = 0; k < count; k++) {
+			var i = sorted[k];
+			centerX[k] = anchor.doubledCenter(x[i], size[i]);
+			centerY[k] = anchor.doubledCenter(y[i], size[i]);
+			radius[k] = anchor.doubledRadius(size[i]);
+		}
+	}
+
+	private int cells(int length) {
+		return length / cellSize + 1;
+	}
+
+	private int cellIndex(int doubledX, int doubledY) {
+		// balls outside the world are clamped into the border cells
+		var column = Math.min(columns - 1, Math.max(0, doubledX / cellSize));
+		var row = Math.min(rows - 1, Math.max(0, doubledY / cellSize));
+		return row * columns + column;
+	}
+
+	private void ensureBallCapacity(int count) {
+		if (cellOf.length < count) {
+			cellOf = new int[count];
+			sorted = new int[count];
+			centerX = new int[count];
+			centerY = new int[count];
+			radius = new int[count];
+		}
+	}
+
+	/*
+	 * NARROW PHASE + RESPONSE
+	 */
+	private void collide(int k, int other, int[] dX, int[] dY) {
+		long distX = centerX[other] - centerX[k];
+		long distY = centerY[other] - centerY[k];
+		long reach = radius[k] + radius[other];
+		var distSquared = distX * distX + distY * distY;
+		if (distSquared >= reach * reach || distSquared == 0) {
+			return;
+		}
+
+		// Only respond if the balls are approaching each other
+		var a = sorted[k];
+		var b = sorted[other];
+		long relX = dX[a] - dX[b];
+		long relY = dY[a] - dY[b];
+		var approach = relX * distX + relY * distY;
+		if (approach <= 0) {
+			return;
+		}
+
+		// Ideal exchange: the relative velocity along the line of centers
+		var scale = (double) approach / distSquared;
+		var idealX = scale * distX;
+		var idealY = scale * distY;
+
+		/*
+		 * An exchange (jX, jY) conserves energy iff |j|^2 = j . rel, i.e.
+		 * j lies on the circle with diameter 0..rel (which the ideal one
+		 * also does). Walk the shorter axis and solve for the other one;
+		 * swapping the whole relative velocity is always on the circle
+		 * and pushes the balls apart, so it is the starting point.
+		 */
+		var swapAxes = Math.abs(relX) > Math.abs(relY);
+		var relShort = swapAxes ? relY : relX;
+		var relLong = swapAxes ? relX : relY;
+		var idealShort = swapAxes ? idealY : idealX;
+		var idealLong = swapAxes ? idealX : idealY;
+		var distShort = swapAxes ? distY : distX;
+		var distLong = swapAxes ? distX : distY;
+		var bestShort = relShort;
+		var bestLong = relLong;
+		var bestError = squared(relShort - idealShort) + squared(relLong - idealLong);
+		var direction = Long.signum(relShort);
+		var steps = Math.abs(relShort);
+		for (long step = 0; step <= steps; step++) {
+			var j = step * direction;
+			var discriminant = relLong * relLong + 4 * j * (relShort - j);
+			var root = squareRoot(discriminant);
+			if (root * root != discriminant || ((relLong + root) & 1) != 0) {
+				continue;
+			}
+			// Both solutions of the quadratic: (relLong +- root) / 2
+			for (long sign = -1; sign <= 1; sign += 2) {
+				var candidate = (relLong + sign * root) / 2;
+				if (j * distShort + candidate * distLong <= 0) {
+					continue;
+				}
+				var error = squared(j - idealShort) + squared(candidate - idealLong);
+				if (error < bestError) {
+					bestShort = j;
+					bestLong = candidate;
+					bestError = error;
+				}
+			}
+		}
+		var impulseX = (int) (swapAxes ? bestLong : bestShort);
+		var impulseY = (int) (swapAxes ? bestShort : bestLong);
+		dX[a] -= impulseX;
+		dY[a] -= impulseY;
+		dX[b] += impulseX;
+		dY[b] += impulseY;
+	}
+
+	// Helpers
+	private static double squared(double value) {
+		return value * value;
+	}
+
+	private static long squareRoot(long value) {
+		var root = (long) Math.sqrt(value);
+		while (root * root > value) {
+			root--;
+		}
+		while ((root + 1) * (root + 1) <= value) {
+			root++;
+		}
+		return root;
+	}
+
+}
@@ -0,0 +1,258 @@
+/**
+ * EventDrivenWorld moves a BallWorld by events instead of ticks:
+ * 		- A ball only changes direction when it hits a wall, and Bounce
+ * 			can compute the tick of that hit in O(1).
+ * 		- Every ball keeps, per axis, the position and direction at its
+ * 			last bounce (the "base") plus the tick of its next bounce.
+ * 		- A min-heap of balls, keyed by their next bounce tick, is the
+ * 			only thing looked at per tick; a ball is touched only when its
+ * 			bounce is due, or when someone asks for its position.
+ * 		- Positions in between are base + elapsed * direction.
+ * For sparse, mostly coasting populations this replaces "every ball,
+ * every tick" with "every bounce", while giving exactly the state that
+ * BallWorld.step() would (collisions are not supported, since they make
+ * every ball depend on every other).
+ * 
+ * USAGE
+ * Wrap a world, drive it with step()/advance(), and call flush() to
+ * write the current state back into the BallWorld (e.g. before taking
+ * a snapshot of it).
+ * 
+ * STYLE NOTES
+ * Keeps the conventions of the other engine classes:
+ * 		- Primitive columns and a hand-written heap, so nothing is
+ * 			allocated per event.
+ * 		- Public, since it is used from outside its own package.
+ */
+package com.github.atollysis.ballbounceprogram.engine;
+
+public class EventDrivenWorld {
+
+	/*
+	 * FIELDS
+	 */
+	private final BallWorld world;
+	private final int count;
+	private long tick;
+	// Per ball and axis, the state at the last bounce
+	private final int[] baseX;
+	private final int[] baseY;
+	private final int[] dirX;
+	private final int[] dirY;
+	private final long[] baseTickX;
+	private final long[] baseTickY;
+	// Per ball and axis, the tick of the next bounce (Bounce.NEVER if none)
+	private final long[] bounceX;
+	private final long[] bounceY;
+	// Min-heap of balls by min(bounceX, bounceY)
+	private final int[] heap;
+	// Counters
+	private long events;
+
+	/*
+	 * CONSTRUCTOR
+	 */
+	/**
+	 * Takes over the current state of the world, which must not have
+	 * collisions turned on.
+	 */
+	public EventDrivenWorld(BallWorld world) {
+		if (world.isColliding()) {
+			throw new IllegalStateException("Event-driven stepping needs collisions to be off");
+		}
+		this.world = world;
+		count = world.getCount();
+		tick = world.getTick();
+		baseX = new int[count];
+		baseY = new int[count];
+		dirX = new int[count];
+		dirY = new int[count];
+		baseTickX = new long[count];
+		baseTickY = new long[count];
+		bounceX = new long[count];
+		bounceY = new long[count];
+		heap = new int[count];
+		for (int i = 0; i < count; i++) {
+			baseX[i] = world.getX(i);
+			baseY[i] = world.getY(i);
+			dirX[i] = world.getDX(i);
+			dirY[i] = world.getDY(i);
+		}
+		schedule();
+	}
+
+	/*
+	 * GETTERS
+	 */
+	public BallWorld getWorld() {
+		return world;
+	}
+
+	public int getCount() {
+		return count;
+	}
+
+	public long getTick() {
+		return tick;
+	}
+
+	/**
+	 * The number of bounces processed so far.
+	 */
+	public long getEvents() {
+		return events;
+	}
+
+	public int getX(int ball) {
+		return (int) (baseX[ball] + (tick - baseTickX[ball]) * dirX[ball]);
+	}
+
+	public int getY(int ball) {
+		return (int) (baseY[ball] + (tick - baseTickY[ball]) * dirY[ball]);
+	}
+
+	public int getDX(int ball) {
+		return dirX[ball];
+	}
+
+	public int getDY(int ball) {
+		return dirY[ball];
+	}
+
+	/*
+	 * SETTERS
+	 */
+	/**
+	 * Resizes the world; every bounce is rescheduled for the new walls.
+	 */
+	public void setLimits(int xLimit, int yLimit) {
+		rebase();
+		world.setLimits(xLimit, yLimit);
+		schedule();
+	}
+
+	/*
+	 * SERVICE METHODS
+	 */
+	public void step() {
+		advance(1);
+	}
+
+	/**
+	 * Same as calling BallWorld.step() the given number of times.
+	 */
+	public void advance(long ticks) {
+		var target = tick + ticks;
+		while (count > 0 && key(heap[0]) <= target) {
+			bounce(heap[0]);
+			siftDown(0);
+		}
+		tick = target;
+	}
+
+	/**
+	 * Writes the current state back into the wrapped BallWorld.
+	 */
+	public void flush() {
+		for (int i = 0; i < count; i++) {
+			world.setState(i, getX(i), getY(i), dirX[i], dirY[i]);
+		}
+		world.setTick(tick);
+	}
+
+	/*
+	 * EVENTS
+	 */
+	/**
+	 * Applies the due bounce(s) of a ball: each due axis jumps to the
+	 * state right after its bounce, and gets its next bounce scheduled.
+	 */
+	private void bounce(int ball) {
+		var due = key(ball);
+		var lo = world.getAnchor().lowerBound(world.getSize(ball));
+		if (bounceX[ball] == due) {
+			baseX[ball] = afterBounce(baseX[ball], dirX[ball], due - baseTickX[ball]);
+			dirX[ball] = -dirX[ball];
+			baseTickX[ball] = due;
+			bounceX[ball] = nextBounce(baseX[ball], dirX[ball], lo, world.getXLimit(), ball, due);
+			events++;
+		}
+		if (bounceY[ball] == due) {
+			baseY[ball] = afterBounce(baseY[ball], dirY[ball], due - baseTickY[ball]);
+			dirY[ball] = -dirY[ball];
+			baseTickY[ball] = due;
+			bounceY[ball] = nextBounce(baseY[ball], dirY[ball], lo, world.getYLimit(), ball, due);
+			events++;
+		}
+	}
+
+	/**
+	 * A segment of n ticks ends with the bounce: n - 1 moves forward,
+	 * then one move back.
+	 */
+	private static int afterBounce(int base, int dir, long n) {
+		return (int) (base + (n - 2) * dir);
+	}
+
+	private long nextBounce(int pos, int dir, int lo, int limit, int ball, long from) {
+		var ticks = Bounce.ticksToFlip(pos, dir, lo, limit - world.getSize(ball));
+		return ticks == Bounce.NEVER ? Bounce.NEVER : from + ticks;
+	}
+
+	private long key(int ball) {
+		return Math.min(bounceX[ball], bounceY[ball]);
+	}
+
+	/**
+	 * Moves every base to the current tick (before the walls change).
+	 */
+	private void rebase() {
+		for (int i = 0; i < count; i++) {
+			baseX[i] = getX(i);
+			baseY[i] = getY(i);
+		}
+	}
+
+	/**
+	 * Computes every next bounce from the current tick and rebuilds
+	 * the heap.
+	 */
+	private void schedule() {
+		var anchor = world.getAnchor();
+		for (int i = 0; i < count; i++) {
+			var lo = anchor.lowerBound(world.getSize(i));
+			baseTickX[i] = tick;
+			baseTickY[i] = tick;
+			bounceX[i] = nextBounce(baseX[i], dirX[i], lo, world.getXLimit(), i, tick);
+			bounceY[i] = nextBounce(baseY[i], dirY[i], lo, world.getYLimit(), i, tick);
+			heap[i] = i;
+		}
+		for (int i = count / 2 - 1; i >= 0; i--) {
+			siftDown(i);
+		}
+	}
+
+	/*
+	 * HEAP HELPERS
+	 */
+	private void siftDown(int slot) {
+		var ball = heap[slot];
+		var ballKey = key(ball);
+		while (true) {
+			var child = 2 * slot + 1;
+			if (child >= count) {
+				break;
+			}
+			if (child + 1 < count && key(heap[child + 1]) < key(heap[child])) {
+				child++;
+			}
+			if (key(heap[child]) >= ballKey) {
+				break;
+			}
+			heap[slot] = heap[child];
+			slot = child;
+		}
+		heap[slot] = ball;
+	}
+
+}
@@ -0,0 +1,239 @@
+/**
+ * HeadlessRunner runs a BallWorld without any View or Controller:
+ * 		- No AWT/Swing/JavaFX classes are touched, so it runs on servers
+ * 			without a display.
+ * 		- The world size is given explicitly instead of coming from
+ * 			view.getWidth()/getHeight().
+ * 		- Steps as fast as the CPU allows for a fixed number of ticks,
+ * 			then reports ticks/second and the final state.
+ * 
+ * USAGE
+ * 		HeadlessRunner <width> <height> <ticks> [balls|scene] [seed] [collide|parallel|events|offheap]
+ * With one ball (the default), the ball starts with the Ball() defaults.
+ * A scene file (see SceneLoader) is streamed in while the world already
+ * ticks; "events" waits for the whole scene first.
+ * Passing "collide" turns on ball-to-ball collisions, "parallel"
+ * steps on every core through a ParallelStepper, and "events" jumps
+ * from bounce to bounce through an EventDrivenWorld. "offheap" keeps
+ * the balls in an OffHeapBallStore instead (no collisions, no scenes),
+ * so e.g. 10M balls run with -Xmx64m -XX:MaxDirectMemorySize=256m; the
+ * report then shows how much heap was used.
+ * 
+ * STYLE NOTES
+ * Keeps the conventions of the other engine classes:
+ * 		- Strictly no magic numbers.
+ * 		- "var" where it's obvious.
+ */
+package com.github.atollysis.ballbounceprogram.engine;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+class HeadlessRunner {
+
+	/*
+	 * FIELDS
+	 */
+	private static final String USAGE =
+			"Usage: HeadlessRunner <width> <height> <ticks> [balls|scene] [seed] [collide|parallel|events|offheap]";
+	private static final int MIN_ARGS = 3;
+	private static final int ARG_BALLS = 3;
+	private static final int ARG_SEED = 4;
+	private static final int ARG_OPTIONS = 5;
+	private static final String COLLIDE = "collide";
+	private static final String PARALLEL = "parallel";
+	private static final String EVENTS = "events";
+	private static final String OFFHEAP = "offheap";
+	private static final long DEFAULT_SEED = 42;
+	private static final int MAX_LISTED_BALLS = 10;
+	private static final double NANOS_PER_SECOND = 1e9;
+	private static final long BYTES_PER_MB = 1L << 20;
+
+	/*
+	 * MAIN
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length < MIN_ARGS) {
+			System.err.println(USAGE);
+			System.exit(1);
+		}
+		var width = Integer.parseInt(args[0]);
+		var height = Integer.parseInt(args[1]);
+		var ticks = Long.parseLong(args[2]);
+		var ballsArg = args.length > ARG_BALLS ? args[ARG_BALLS] : "1";
+		var seed = args.length > ARG_SEED ? Long.parseLong(args[ARG_SEED]) : DEFAULT_SEED;
+		var options = args.length > ARG_OPTIONS
+				? List.of(args).subList(ARG_OPTIONS, args.length)
+				: List.<String>of();
+
+		if (!ballsArg.chars().allMatch(Character::isDigit)) {
+			try (var scene = new SceneLoader(Path.of(ballsArg))) {
+				runScene(scene, new BallWorld(width, height), ticks, options);
+			}
+			return;
+		}
+		var balls = Integer.parseInt(ballsArg);
+		if (options.contains(OFFHEAP)) {
+			if (options.contains(COLLIDE)) {
+				System.err.println("Collisions are not supported off-heap");
+				System.exit(1);
+			}
+			var store = balls == 1
+					? Scenes.singleOffHeap(width, height)
+					: Scenes.randomOffHeap(width, height, balls, Scenes.DEFAULT_SIZE, seed);
+			report(store, run(store, ticks));
+			return;
+		}
+		var world = balls == 1
+				? Scenes.single(width, height)
+				: Scenes.random(width, height, balls, Scenes.DEFAULT_SIZE, seed);
+		world.setColliding(options.contains(COLLIDE));
+
+		long elapsed;
+		if (options.contains(EVENTS)) {
+			elapsed = run(new EventDrivenWorld(world), ticks);
+		} else if (options.contains(PARALLEL)) {
+			elapsed = run(world, ticks, new ParallelStepper());
+		} else {
+			elapsed = run(world, ticks);
+		}
+		report(world, elapsed);
+	}
+
+	private static void runScene(
+			SceneLoader scene, BallWorld world, long ticks, List<String> options)
+			throws IOException {
+		world.setColliding(options.contains(COLLIDE));
+		var start = System.nanoTime();
+		scene.start();
+		long elapsed;
+		if (options.contains(EVENTS)) {
+			scene.drainAll(world);
+			reportLoad(world, System.nanoTime() - start);
+			elapsed = run(new EventDrivenWorld(world), ticks);
+		} else {
+			elapsed = run(world, ticks, scene, options.contains(PARALLEL) ? new ParallelStepper() : null);
+			// Whatever did not arrive during the run still joins (caught up)
+			scene.drainAll(world);
+			reportLoad(world, System.nanoTime() - start);
+		}
+		report(world, elapsed);
+	}
+
+	/**
+	 * Steps the world the given number of ticks and returns the
+	 * elapsed wall-clock time in nanoseconds.
+	 */
+	static long run(BallWorld world, long ticks) {
+		var start = System.nanoTime();
+		for (long t = 0; t < ticks; t++) {
+			world.step();
+		}
+		return System.nanoTime() - start;
+	}
+
+	static long run(BallWorld world, long ticks, ParallelStepper stepper) {
+		var start = System.nanoTime();
+		for (long t = 0; t < ticks; t++) {
+			stepper.step(world);
+		}
+		return System.nanoTime() - start;
+	}
+
+	static long run(OffHeapBallStore store, long ticks) {
+		var start = System.nanoTime();
+		for (long t = 0; t < ticks; t++) {
+			store.step();
+		}
+		return System.nanoTime() - start;
+	}
+
+	static long run(EventDrivenWorld events, long ticks) {
+		var start = System.nanoTime();
+		for (long t = 0; t < ticks; t++) {
+			events.step();
+		}
+		events.flush();
+		return System.nanoTime() - start;
+	}
+
+	/**
+	 * Steps the world (on the stepper, if not null) while the scene's
+	 * balls are added between ticks as they load.
+	 */
+	static long run(BallWorld world, long ticks, SceneLoader scene, ParallelStepper stepper)
+			throws IOException {
+		var start = System.nanoTime();
+		for (long t = 0; t < ticks; t++) {
+			if (!scene.isDone()) {
+				scene.drainInto(world);
+			}
+			if (stepper != null) {
+				stepper.step(world);
+			} else {
+				world.step();
+			}
+		}
+		return System.nanoTime() - start;
+	}
+
+	private static void reportLoad(BallWorld world, long elapsedNanos) {
+		System.out.format("Loaded:       %d balls in %.3f s%n",
+				world.getCount(),
+				elapsedNanos / NANOS_PER_SECOND);
+	}
+
+	private static void report(BallWorld world, long elapsedNanos) {
+		System.out.format("World:        %d x %d, %d balls%s%n",
+				world.getXLimit(),
+				world.getYLimit(),
+				world.getCount(),
+				world.isColliding() ? ", colliding" : "");
+		reportRate(world.getTick(), world.getCount(), elapsedNanos);
+
+		var listed = Math.min(world.getCount(), MAX_LISTED_BALLS);
+		for (int i = 0; i < listed; i++) {
+			reportBall(i, world.getX(i), world.getY(i), world.getDX(i), world.getDY(i), world.getSize(i));
+		}
+		reportUnlisted(world.getCount(), listed);
+	}
+
+	private static void report(OffHeapBallStore store, long elapsedNanos) {
+		var runtime = Runtime.getRuntime();
+		System.out.format("World:        %d x %d, %d balls off-heap%n",
+				store.getXLimit(),
+				store.getYLimit(),
+				store.getCount());
+		reportRate(store.getTick(), store.getCount(), elapsedNanos);
+		System.out.format("Heap:         %d of %d MB used%n",
+				(runtime.totalMemory() - runtime.freeMemory()) / BYTES_PER_MB,
+				runtime.maxMemory() / BYTES_PER_MB);
+
+		var listed = Math.min(store.getCount(), MAX_LISTED_BALLS);
+		var ball = store.cursor();
+		for (int i = 0; i < listed; i++) {
+			ball.at(i);
+			reportBall(i, ball.getX(), ball.getY(), ball.getDX(), ball.getDY(), ball.getSize());
+		}
+		reportUnlisted(store.getCount(), listed);
+	}
+
+	private static void reportRate(long ticks, int balls, long elapsedNanos) {
+		var seconds = elapsedNanos / NANOS_PER_SECOND;
+		System.out.format("Ticks:        %d in %.3f s%n", ticks, seconds);
+		System.out.format("Ticks/s:      %.0f%n", ticks / seconds);
+		System.out.format("Ball-ticks/s: %.0f%n", ticks * balls / seconds);
+	}
+
+	private static void reportBall(int ball, int x, int y, int dX, int dY, int size) {
+		System.out.format("Ball %d: x=%d y=%d dX=%d dY=%d size=%d%n", ball, x, y, dX, dY, size);
+	}
+
+	private static void reportUnlisted(int balls, int listed) {
+		if (listed < balls) {
+			System.out.format("(%d more balls not listed)%n", balls - listed);
+		}
+	}
+
+}
@@ -0,0 +1,90 @@
+/**
+ * Histogram records durations (in nanoseconds) into power-of-two
+ * buckets, so recording is a few atomic adds and never allocates:
+ * 		- Bucket k holds values in [2^(k-1), 2^k); bucket 0 holds 0.
+ * 		- Percentiles are estimated as the upper edge of their bucket
+ * 			(never more than the largest value recorded).
+ * Safe to record from any thread.
+ * 
+ * STYLE NOTES
+ * Keeps the conventions of the other engine classes; package-private,
+ * since only TickMetrics uses it.
+ */
+package com.github.atollysis.ballbounceprogram.engine;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+class Histogram {
+
+	/*
+	 * FIELDS
+	 */
+	private static final int BUCKETS = Long.SIZE;
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+	private final LongAdder count = new LongAdder();
+	private final LongAdder sum = new LongAdder();
+	private final AtomicLong max = new AtomicLong();
+
+	/*
+	 * SERVICE METHODS
+	 */
+	void record(long nanos) {
+		var value = Math.max(0, nanos);
+		buckets.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(value));
+		count.increment();
+		sum.add(value);
+		max.accumulateAndGet(value, Math::max);
+	}
+
+	void reset() {
+		for (int i = 0; i < BUCKETS; i++) {
+			buckets.set(i, 0);
+		}
+		count.reset();
+		sum.reset();
+		max.set(0);
+	}
+
+	/*
+	 * GETTERS
+	 */
+	long getCount() {
+		return count.sum();
+	}
+
+	double getMean() {
+		var n = count.sum();
+		return n == 0 ? 0 : (double) sum.sum() / n;
+	}
+
+	long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * Upper edge of the bucket holding the given fraction (0..1),
+	 * capped at the largest value recorded.
+	 */
+	long getPercentile(double fraction) {
+		var target = (long) Math.ceil(fraction * count.sum());
+		var seen = 0L;
+		for (int k = 0; k < BUCKETS; k++) {
+			seen += buckets.get(k);
+			if (seen >= target && seen > 0) {
+				return Math.min((1L << k) - 1, max.get());
+			}
+		}
+		return 0;
+	}
+
+	long[] getBuckets() {
+		var copy = new long[BUCKETS];
+		for (int k = 0; k < BUCKETS; k++) {
+			copy[k] = buckets.get(k);
+		}
+		return copy;
+	}
+
+}
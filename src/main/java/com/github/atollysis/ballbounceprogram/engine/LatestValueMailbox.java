@@ -0,0 +1,103 @@
+/**
+ * LatestValueMailbox hands a single long (such as a packed position)
+ * from the Model's thread to a View, keeping only the latest value:
+ * 		- offer() overwrites the slot; it never queues, so a Model that
+ * 			ticks faster than the View paints cannot pile up work.
+ * 		- offer() returns true only when the slot was empty, so the
+ * 			producer schedules one drain (e.g. with invokeLater()) per
+ * 			batch of updates instead of one repaint per update.
+ * 		- peek() reads the latest value without taking it, e.g. for the
+ * 			drain to work out what to repaint, and empties the slot.
+ * 		- take() returns the latest value and counts it as rendered; the
+ * 			View calls it at most once per paint, in the paint itself
+ * 			(repaints merged by Swing are then never counted twice).
+ * 		- Every update is counted in TickMetrics as produced, then as
+ * 			rendered or dropped (overwritten before a take() saw it).
+ * The value is published with a sequence number (a "seqlock"), so
+ * take() knows exactly how many updates it skipped, without locks or
+ * garbage on either side.
+ * Supports one producer thread and one consumer thread.
+ * 
+ * STYLE NOTES
+ * Keeps the conventions of the other engine classes.
+ */
+package com.github.atollysis.ballbounceprogram.engine;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class LatestValueMailbox {
+
+	/*
+	 * FIELDS
+	 */
+	private final TickMetrics metrics;
+	private final AtomicBoolean pending = new AtomicBoolean();
+	// Written by the producer (odd sequence = being written)
+	private volatile long sequence;
+	private volatile long value;
+	// Consumer only
+	private long takenSequence;
+
+	/*
+	 * CONSTRUCTOR
+	 */
+	public LatestValueMailbox(long initialValue, TickMetrics metrics) {
+		this.metrics = metrics;
+		value = initialValue;
+	}
+
+	/*
+	 * PRODUCER
+	 */
+	/**
+	 * Replaces the value. Returns true if the consumer has taken every
+	 * earlier value, i.e. a drain needs to be scheduled.
+	 */
+	public boolean offer(long value) {
+		sequence++;
+		this.value = value;
+		sequence++;
+		metrics.recordProduced();
+		return !pending.getAndSet(true);
+	}
+
+	/*
+	 * CONSUMER
+	 */
+	/**
+	 * The latest value, without counting it as rendered. Any offer() made
+	 * while this runs schedules another drain.
+	 */
+	public long peek() {
+		// Cleared first, so no offer() can go unnoticed
+		pending.set(false);
+		long before;
+		long latest;
+		do {
+			before = sequence;
+			latest = value;
+		} while ((before & 1) != 0 || before != sequence);
+		return latest;
+	}
+
+	/**
+	 * The latest value (also when nothing new was offered since the last
+	 * call), counted as rendered and the updates it skipped as dropped.
+	 * Any offer() made while this runs schedules another drain.
+	 */
+	public long take() {
+		pending.set(false);
+		long before;
+		long latest;
+		do {
+			before = sequence;
+			latest = value;
+		} while ((before & 1) != 0 || before != sequence);
+
+		// Two sequence steps per update
+		metrics.recordDrained((before - takenSequence) >> 1);
+		takenSequence = before;
+		return latest;
+	}
+
+}
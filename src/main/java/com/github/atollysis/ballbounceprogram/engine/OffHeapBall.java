@@ -0,0 +1,99 @@
+/**
+ * OffHeapBall is a flyweight Ball over one record of an
+ * OffHeapBallStore:
+ * 		- It holds no state of its own besides the store and the
+ * 			record it points at, so one instance can visit every ball.
+ * 		- The getters and move() behave like the ones of Ball, reading
+ * 			and writing the record in place: move(xLimit, yLimit) like
+ * 			ball1/ball2, move() within the store's limits like ball3.
+ * 		- It always reads the store's current buffer, so it stays valid
+ * 			when the store grows.
+ * 
+ * USAGE
+ * 		var ball = store.cursor();
+ * 		for (int i = 0; i < store.getCount(); i++) {
+ * 			ball.at(i).move(xLimit, yLimit);
+ * 		}
+ * 
+ * STYLE NOTES
+ * Keeps the conventions of the other engine classes; public, but only
+ * created through OffHeapBallStore.cursor().
+ */
+package com.github.atollysis.ballbounceprogram.engine;
+
+public class OffHeapBall {
+
+	/*
+	 * FIELDS
+	 */
+	private final OffHeapBallStore store;
+	private int index;
+	private int offset;
+
+	/*
+	 * CONSTRUCTOR
+	 */
+	OffHeapBall(OffHeapBallStore store) {
+		this.store = store;
+	}
+
+	/*
+	 * CURSOR
+	 */
+	/**
+	 * Points this flyweight at another ball and returns it.
+	 */
+	public OffHeapBall at(int ball) {
+		if (ball < 0 || ball >= store.getCount()) {
+			throw new IndexOutOfBoundsException(ball);
+		}
+		index = ball;
+		offset = OffHeapBallStore.offset(ball);
+		return this;
+	}
+
+	public int getIndex() {
+		return index;
+	}
+
+	/*
+	 * GETTERS
+	 */
+	public int getX() {
+		return store.records().getInt(offset + OffHeapBallStore.X);
+	}
+
+	public int getY() {
+		return store.records().getInt(offset + OffHeapBallStore.Y);
+	}
+
+	public int getDX() {
+		return store.records().getInt(offset + OffHeapBallStore.DX);
+	}
+
+	public int getDY() {
+		return store.records().getInt(offset + OffHeapBallStore.DY);
+	}
+
+	public int getSize() {
+		return store.records().getInt(offset + OffHeapBallStore.SIZE);
+	}
+
+	/*
+	 * SERVICE METHODS
+	 */
+	/**
+	 * Moves only this ball, within the given limits.
+	 */
+	public void move(int xLimit, int yLimit) {
+		store.move(offset, xLimit, yLimit);
+	}
+
+	/**
+	 * Moves only this ball, within the store's current limits.
+	 */
+	public void move() {
+		move(store.getXLimit(), store.getYLimit());
+	}
+
+}
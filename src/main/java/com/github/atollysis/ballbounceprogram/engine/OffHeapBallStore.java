@@ -0,0 +1,240 @@
+/**
+ * OffHeapBallStore is a BallWorld whose state lives outside the heap:
+ * 		- Every ball is a fixed 20 byte record (x, y, dX, dY, size) in
+ * 			one direct ByteBuffer, in native byte order.
+ * 		- The GC only sees the buffer object itself, so heap size and
+ * 			pause times stay flat however many balls there are.
+ * 		- step() uses the same reflection rule as BallWorld (shared
+ * 			through Bounce.direction()), reading and writing the records
+ * 			in place.
+ * 		- cursor() gives an OffHeapBall, a flyweight with the Ball API
+ * 			(getters and move()) that can be pointed at any record.
+ * A single buffer holds up to MAX_CAPACITY balls (about 100 million).
+ * Direct memory is capped at -Xmx by default, so a small heap with a big
+ * store needs -XX:MaxDirectMemorySize as well.
+ * 
+ * STYLE NOTES
+ * Keeps the conventions of the other engine classes:
+ * 		- Strictly no magic numbers; the record layout is spelled out
+ * 			as byte offsets.
+ * 		- Public, since it is used from outside its own package.
+ */
+package com.github.atollysis.ballbounceprogram.engine;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+public class OffHeapBallStore {
+
+	/*
+	 * FIELDS
+	 */
+	// Record layout
+	static final int X = 0;
+	static final int Y = Integer.BYTES;
+	static final int DX = 2 * Integer.BYTES;
+	static final int DY = 3 * Integer.BYTES;
+	static final int SIZE = 4 * Integer.BYTES;
+	static final int RECORD_BYTES = 5 * Integer.BYTES;
+	public static final int MAX_CAPACITY = Integer.MAX_VALUE / RECORD_BYTES;
+	private static final int GROWTH_FACTOR = 2;
+	// Store
+	private ByteBuffer records;
+	private int count;
+	// World
+	private final Anchor anchor;
+	private int xLimit;
+	private int yLimit;
+	private long tick;
+
+	/*
+	 * CONSTRUCTORS
+	 */
+	public OffHeapBallStore(int xLimit, int yLimit, int capacity, Anchor anchor) {
+		this.anchor = anchor;
+		this.xLimit = xLimit;
+		this.yLimit = yLimit;
+		records = allocate(capacity);
+	}
+
+	public OffHeapBallStore(int xLimit, int yLimit, int capacity) {
+		this(xLimit, yLimit, capacity, Anchor.TOP_LEFT);
+	}
+
+	/**
+	 * A store holding a copy of the world's balls, limits and tick.
+	 */
+	public static OffHeapBallStore copyOf(BallWorld world) {
+		var store = new OffHeapBallStore(
+				world.getXLimit(), world.getYLimit(), world.getCount(), world.getAnchor());
+		for (int i = 0; i < world.getCount(); i++) {
+			store.add(world.getX(i), world.getY(i), world.getDX(i), world.getDY(i), world.getSize(i));
+		}
+		store.tick = world.getTick();
+		return store;
+	}
+
+	/*
+	 * POPULATION
+	 */
+	/**
+	 * Adds a ball with the same arguments as the Ball constructor
+	 * and returns its index.
+	 */
+	public int add(int x, int y, int dX, int dY, int size) {
+		ensureCapacity(count + 1);
+		var at = offset(count);
+		records.putInt(at + X, x);
+		records.putInt(at + Y, y);
+		records.putInt(at + DX, dX);
+		records.putInt(at + DY, dY);
+		records.putInt(at + SIZE, size);
+		return count++;
+	}
+
+	/**
+	 * Grows the store to hold at least capacity balls; more than
+	 * MAX_CAPACITY do not fit in one buffer.
+	 */
+	public void ensureCapacity(int capacity) {
+		if (capacity <= getCapacity()) {
+			return;
+		}
+		if (capacity > MAX_CAPACITY) {
+			throw new IllegalArgumentException(
+					"Capacity must be between 0 and " + MAX_CAPACITY + ": " + capacity);
+		}
+		var grown = allocate((int) Math.min(MAX_CAPACITY,
+				Math.max(capacity, (long) getCapacity() * GROWTH_FACTOR)));
+		grown.put(0, records, 0, count * RECORD_BYTES);
+		records = grown;
+	}
+
+	/*
+	 * GETTERS
+	 */
+	public int getCount() {
+		return count;
+	}
+
+	public int getCapacity() {
+		return records.capacity() / RECORD_BYTES;
+	}
+
+	public int getX(int ball) {
+		return records.getInt(offset(ball) + X);
+	}
+
+	public int getY(int ball) {
+		return records.getInt(offset(ball) + Y);
+	}
+
+	public int getDX(int ball) {
+		return records.getInt(offset(ball) + DX);
+	}
+
+	public int getDY(int ball) {
+		return records.getInt(offset(ball) + DY);
+	}
+
+	public int getSize(int ball) {
+		return records.getInt(offset(ball) + SIZE);
+	}
+
+	public Anchor getAnchor() {
+		return anchor;
+	}
+
+	public int getXLimit() {
+		return xLimit;
+	}
+
+	public int getYLimit() {
+		return yLimit;
+	}
+
+	public long getTick() {
+		return tick;
+	}
+
+	/**
+	 * A new flyweight, pointed at the first ball. Reuse it with at()
+	 * instead of asking for one per ball.
+	 */
+	public OffHeapBall cursor() {
+		return new OffHeapBall(this);
+	}
+
+	/**
+	 * Bulk copy of the position and size columns (for snapshots).
+	 */
+	public void copyColumns(int[] x, int[] y, int[] size) {
+		for (int i = 0, at = 0; i < count; i++, at += RECORD_BYTES) {
+			x[i] = records.getInt(at + X);
+			y[i] = records.getInt(at + Y);
+			size[i] = records.getInt(at + SIZE);
+		}
+	}
+
+	/*
+	 * SETTERS
+	 */
+	public void setLimits(int xLimit, int yLimit) {
+		this.xLimit = xLimit;
+		this.yLimit = yLimit;
+	}
+
+	/*
+	 * SERVICE METHODS
+	 */
+	public void step() {
+		// Locals keep the loop free of field reloads
+		final var records = this.records;
+		final var xLimit = this.xLimit;
+		final var yLimit = this.yLimit;
+		final var end = count * RECORD_BYTES;
+		for (int at = 0; at < end; at += RECORD_BYTES) {
+			move(records, at, xLimit, yLimit);
+		}
+		tick++;
+	}
+
+	/**
+	 * Moves the ball whose record starts at the given byte offset
+	 * within the given limits.
+	 */
+	void move(int at, int xLimit, int yLimit) {
+		move(records, at, xLimit, yLimit);
+	}
+
+	private void move(ByteBuffer records, int at, int xLimit, int yLimit) {
+		var s = records.getInt(at + SIZE);
+		var lo = anchor.lowerBound(s);
+		var x = records.getInt(at + X);
+		var y = records.getInt(at + Y);
+		var dx = Bounce.direction(x, records.getInt(at + DX), lo, xLimit - s);
+		var dy = Bounce.direction(y, records.getInt(at + DY), lo, yLimit - s);
+		records.putInt(at + DX, dx);
+		records.putInt(at + DY, dy);
+		records.putInt(at + X, x + dx);
+		records.putInt(at + Y, y + dy);
+	}
+
+	// Helpers
+	ByteBuffer records() {
+		return records;
+	}
+
+	static int offset(int ball) {
+		return ball * RECORD_BYTES;
+	}
+
+	private static ByteBuffer allocate(int capacity) {
+		if (capacity < 0 || capacity > MAX_CAPACITY) {
+			throw new IllegalArgumentException(
+					"Capacity must be between 0 and " + MAX_CAPACITY + ": " + capacity);
+		}
+		return ByteBuffer.allocateDirect(capacity * RECORD_BYTES).order(ByteOrder.nativeOrder());
+	}
+
+}
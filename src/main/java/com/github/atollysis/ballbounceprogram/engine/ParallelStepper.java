@@ -0,0 +1,146 @@
+/**
+ * ParallelStepper steps a BallWorld on every core of a ForkJoinPool:
+ * 		- Collisions (if enabled) are resolved first. The grid is rebuilt
+ * 			on the calling thread, then its row strips are resolved in
+ * 			parallel, then the boundaries between them (see
+ * 			CollisionGrid). Each phase only touches disjoint balls, and
+ * 			invoke() separates the phases.
+ * 		- The population is then split into chunks that are moved in
+ * 			parallel. Every ball belongs to exactly one chunk, so the
+ * 			bounds/reflection update needs no locks.
+ * 		- invoke() only returns once every chunk is done, which acts as
+ * 			the barrier at the end of each tick.
+ * The result is identical to BallWorld.step(), since each ball's move
+ * only reads and writes its own slots, and BallWorld.step() resolves the
+ * same strips and boundaries in the same order per ball.
+ * 
+ * MEASURED (1-core sandbox, 200 000 balls of size 6 in a 4000 x 4000
+ * world, mean ms per tick over 100 ticks)
+ * 		step()				collisions on: 47.4	off: 0.2
+ * 		ParallelStepper(1)	collisions on: 53.1	off: 0.2
+ * 		ParallelStepper(4)	collisions on: 51.3	off: 0.2
+ * Of a colliding tick, rebuilding the grid (still serial) takes 8.9 ms
+ * and the strips + boundaries 33.9 ms, so about 79% of it runs in
+ * parallel. One core shows no speedup, and the scaling on many cores
+ * has not been measured; by Amdahl's law the serial rebuild caps it
+ * at about 4.3x on 32 cores.
+ * 
+ * STYLE NOTES
+ * Keeps the conventions of the other engine classes.
+ */
+package com.github.atollysis.ballbounceprogram.engine;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class ParallelStepper {
+
+	/*
+	 * FIELDS
+	 */
+	// Smaller chunks cost more in scheduling than they save
+	private static final int MIN_CHUNK = 1 << 14;
+	// Chunks per worker, so faster workers can steal the rest
+	private static final int CHUNKS_PER_WORKER = 4;
+	private final ForkJoinPool pool;
+
+	/*
+	 * CONSTRUCTORS
+	 */
+	public ParallelStepper(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	public ParallelStepper() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	/*
+	 * SERVICE METHOD
+	 */
+	public void step(BallWorld world) {
+		var strips = world.prepareCollisions();
+		if (strips > 0) {
+			pool.invoke(new CollisionTask(world, 0, strips, false));
+			if (strips > 1) {
+				pool.invoke(new CollisionTask(world, 0, strips - 1, true));
+			}
+		}
+		var count = world.getCount();
+		var chunk = Math.max(MIN_CHUNK, count / (pool.getParallelism() * CHUNKS_PER_WORKER));
+		if (count <= chunk) {
+			world.moveRange(0, count);
+		} else {
+			pool.invoke(new MoveTask(world, 0, count, chunk));
+		}
+		world.endTick();
+	}
+
+	/*
+	 * TASKS
+	 * Split their range in half until it is at most one chunk (or one
+	 * strip) long.
+	 */
+	private static class MoveTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+		private final BallWorld world;
+		private final int from;
+		private final int to;
+		private final int chunk;
+
+		MoveTask(BallWorld world, int from, int to, int chunk) {
+			this.world = world;
+			this.from = from;
+			this.to = to;
+			this.chunk = chunk;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= chunk) {
+				world.moveRange(from, to);
+				return;
+			}
+			var middle = (from + to) >>> 1;
+			invokeAll(
+					new MoveTask(world, from, middle, chunk),
+					new MoveTask(world, middle, to, chunk));
+		}
+
+	}
+
+	private static class CollisionTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+		private final BallWorld world;
+		private final int from;
+		private final int to;
+		private final boolean boundaries;
+
+		CollisionTask(BallWorld world, int from, int to, boolean boundaries) {
+			this.world = world;
+			this.from = from;
+			this.to = to;
+			this.boundaries = boundaries;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from == 1) {
+				if (boundaries) {
+					world.resolveCollisionBoundary(from);
+				} else {
+					world.resolveCollisionStrip(from);
+				}
+				return;
+			}
+			var middle = (from + to) >>> 1;
+			invokeAll(
+					new CollisionTask(world, from, middle, boundaries),
+					new CollisionTask(world, middle, to, boundaries));
+		}
+
+	}
+
+}
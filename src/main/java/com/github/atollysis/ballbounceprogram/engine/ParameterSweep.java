@@ -0,0 +1,206 @@
+/**
+ * ParameterSweep runs many small, independent what-if worlds at once:
+ * 		- Every run is one ball, started with its own x, y, dX, dY and
+ * 			size (the arguments of the Ball constructor), drawn from a
+ * 			seeded random generator so a sweep can be repeated.
+ * 		- Runs are moved with an EventDrivenWorld, so a run costs one
+ * 			step per bounce rather than per tick, and the number of
+ * 			bounces comes for free.
+ * 		- Runs execute on virtual threads (one per run) by default, or
+ * 			on a fixed pool of platform threads.
+ * 		- Every run's summary is streamed to a CSV file as soon as it
+ * 			finishes (in completion order), and the aggregate throughput
+ * 			is reported at the end.
+ * Writers share the file through a ReentrantLock rather than
+ * "synchronized", which would pin virtual threads to their carrier.
+ * 
+ * USAGE
+ * 		ParameterSweep <width> <height> <ticks> <runs> <results.csv> [seed] [threads]
+ * Without "threads", every run gets its own virtual thread.
+ * 
+ * STYLE NOTES
+ * Keeps the conventions of the other engine classes:
+ * 		- Strictly no magic numbers.
+ * 		- "var" where it's obvious.
+ */
+package com.github.atollysis.ballbounceprogram.engine;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class ParameterSweep {
+
+	/*
+	 * FIELDS
+	 */
+	private static final String USAGE =
+			"Usage: ParameterSweep <width> <height> <ticks> <runs> <results.csv> [seed] [threads]";
+	private static final int MIN_ARGS = 5;
+	private static final int ARG_SEED = 5;
+	private static final int ARG_THREADS = 6;
+	private static final long DEFAULT_SEED = 42;
+	private static final double NANOS_PER_SECOND = 1e9;
+	private static final String HEADER = "run,x,y,dX,dY,size,bounces,finalX,finalY,finalDX,finalDY";
+	// Ranges of the swept parameters
+	private static final int MIN_SIZE = 1;
+	private static final int MAX_SIZE = Scenes.DEFAULT_SIZE;
+	private static final int MAX_DIR = 2 * Scenes.DEFAULT_DIR;
+	// Runs submitted but not yet finished (bounds memory for huge sweeps)
+	private static final int MAX_IN_FLIGHT = 1 << 16;
+	// Instance
+	private final int xLimit;
+	private final int yLimit;
+	private final long ticks;
+
+	/**
+	 * What a whole sweep did.
+	 */
+	public record Summary(int runs, long ticks, long bounces, long elapsedNanos) {
+
+		public double runsPerSecond() {
+			return runs / (elapsedNanos / NANOS_PER_SECOND);
+		}
+
+		public double ballTicksPerSecond() {
+			return runs * (double) ticks / (elapsedNanos / NANOS_PER_SECOND);
+		}
+
+	}
+
+	/*
+	 * MAIN
+	 */
+	public static void main(String[] args) throws Exception {
+		if (args.length < MIN_ARGS) {
+			System.err.println(USAGE);
+			System.exit(1);
+		}
+		var sweep = new ParameterSweep(
+				Integer.parseInt(args[0]),
+				Integer.parseInt(args[1]),
+				Long.parseLong(args[2]));
+		var runs = Integer.parseInt(args[3]);
+		var results = Path.of(args[4]);
+		var seed = args.length > ARG_SEED ? Long.parseLong(args[ARG_SEED]) : DEFAULT_SEED;
+
+		Summary summary;
+		try (var executor = args.length > ARG_THREADS
+				? Executors.newFixedThreadPool(Integer.parseInt(args[ARG_THREADS]))
+				: Executors.newVirtualThreadPerTaskExecutor()) {
+			summary = sweep.run(runs, seed, executor, results);
+		}
+		System.out.format("Runs:         %d x %d ticks in %.3f s%n",
+				summary.runs(), summary.ticks(), summary.elapsedNanos() / NANOS_PER_SECOND);
+		System.out.format("Runs/s:       %.0f%n", summary.runsPerSecond());
+		System.out.format("Ball-ticks/s: %.0f%n", summary.ballTicksPerSecond());
+		System.out.format("Bounces:      %d%n", summary.bounces());
+		System.out.format("Results:      %s%n", results);
+	}
+
+	/*
+	 * CONSTRUCTOR
+	 */
+	public ParameterSweep(int xLimit, int yLimit, long ticks) {
+		this.xLimit = xLimit;
+		this.yLimit = yLimit;
+		this.ticks = ticks;
+	}
+
+	/*
+	 * SERVICE METHOD
+	 */
+	/**
+	 * Runs the sweep on the executor, writing one CSV line per run to
+	 * the results file, and returns once every run is written. If a run
+	 * fails, no more runs start and the first failure is thrown once the
+	 * running ones finish.
+	 */
+	public Summary run(int runs, long seed, ExecutorService executor, Path results)
+			throws IOException, InterruptedException {
+		var bounces = new LongAdder();
+		var lock = new ReentrantLock();
+		var inFlight = new Semaphore(MAX_IN_FLIGHT);
+		var failure = new AtomicReference<Throwable>();
+		var random = new SplittableRandom(seed);
+		var start = System.nanoTime();
+
+		try (var out = Files.newBufferedWriter(results)) {
+			out.write(HEADER);
+			out.newLine();
+			for (int run = 0; run < runs && failure.get() == null; run++) {
+				// Drawn here, in order, so the parameters do not depend on scheduling
+				var size = random.nextInt(MIN_SIZE, MAX_SIZE + 1);
+				var x = random.nextInt(0, Math.max(1, xLimit - size));
+				var y = random.nextInt(0, Math.max(1, yLimit - size));
+				var dX = random.nextInt(-MAX_DIR, MAX_DIR + 1);
+				var dY = random.nextInt(-MAX_DIR, MAX_DIR + 1);
+				var index = run;
+
+				inFlight.acquire();
+				executor.execute(() -> {
+					try {
+						var line = runOne(index, x, y, dX, dY, size, bounces);
+						write(out, lock, line);
+					} catch (Throwable t) {
+						failure.compareAndSet(null, t);
+					} finally {
+						inFlight.release();
+					}
+				});
+			}
+			// Wait for every run to be written
+			inFlight.acquire(MAX_IN_FLIGHT);
+			inFlight.release(MAX_IN_FLIGHT);
+		}
+		rethrow(failure.get());
+		return new Summary(runs, ticks, bounces.sum(), System.nanoTime() - start);
+	}
+
+	/**
+	 * One what-if world; returns its CSV line.
+	 */
+	private String runOne(int run, int x, int y, int dX, int dY, int size, LongAdder bounces) {
+		var world = new BallWorld(xLimit, yLimit, 1);
+		world.add(x, y, dX, dY, size);
+		var events = new EventDrivenWorld(world);
+		events.advance(ticks);
+		bounces.add(events.getEvents());
+		return run + "," + x + "," + y + "," + dX + "," + dY + "," + size + ","
+				+ events.getEvents() + ","
+				+ events.getX(0) + "," + events.getY(0) + ","
+				+ events.getDX(0) + "," + events.getDY(0);
+	}
+
+	private static void rethrow(Throwable failure) throws IOException {
+		if (failure instanceof UncheckedIOException e) {
+			throw e.getCause();
+		} else if (failure instanceof RuntimeException e) {
+			throw e;
+		} else if (failure instanceof Error e) {
+			throw e;
+		}
+	}
+
+	private static void write(BufferedWriter out, ReentrantLock lock, String line) {
+		lock.lock();
+		try {
+			out.write(line);
+			out.newLine();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+}
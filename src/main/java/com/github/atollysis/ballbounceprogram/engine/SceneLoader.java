@@ -0,0 +1,550 @@
+/**
+ * SceneLoader streams a starting population from a file into a
+ * BallWorld, so huge scenes can start simulating before they are fully
+ * read:
+ * 		- A "scene-loader" thread walks the file through memory-mapped
+ * 			windows and hands over blocks of balls in file order.
+ * 		- Binary scenes (see FILE FORMAT) are never parsed: each block is
+ * 			already laid out as columns, so it is bulk-copied from the
+ * 			mapping straight into the world's columns, with no objects
+ * 			per ball. The loader thread only faults the pages in ahead.
+ * 		- CSV scenes are cut into chunks at line ends and parsed in
+ * 			parallel on the common ForkJoinPool, straight from the
+ * 			mapped bytes into int columns.
+ * 		- drainInto() (on the thread that steps the world, between two
+ * 			ticks) appends whatever blocks are ready. With collisions
+ * 			off, late balls are moved ahead in closed form (see Bounce)
+ * 			by the ticks they missed, so the world ends up exactly as if
+ * 			the whole scene had been there at the first drain (as long
+ * 			as the limits did not change meanwhile). With collisions on,
+ * 			they simply enter the world late.
+ * 		- At most MAX_IN_FLIGHT blocks wait to be drained, so a slow
+ * 			consumer does not pull the whole file into memory twice.
+ *
+ * CSV FORMAT
+ * One ball per line: x,y,dX,dY,size (the Ball constructor's arguments).
+ * Blank lines, and lines that do not start with a number (a header or
+ * "#" comments), are skipped.
+ *
+ * FILE FORMAT (binary, little-endian)
+ * 		int magic, int version, int count,
+ * 		then blocks of: int n, then n ints of x, y, dX, dY and size, one
+ * 		column at a time.
+ *
+ * USAGE
+ * 		SceneLoader random <width> <height> <balls> <file> [seed]
+ * 		SceneLoader convert <scene> <file>
+ * Writes a random scene, or converts any scene, to the file: as CSV if
+ * its name ends with ".csv", as binary otherwise.
+ *
+ * STYLE NOTES
+ * Keeps the conventions of the other engine classes.
+ */
+package com.github.atollysis.ballbounceprogram.engine;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+
+public class SceneLoader implements AutoCloseable {
+
+	/*
+	 * FIELDS
+	 */
+	// "BBSC"
+	static final int MAGIC = 0x42425343;
+	static final int VERSION = 1;
+	static final int HEADER_BYTES = 3 * Integer.BYTES;
+	private static final int BLOCK_HEADER_BYTES = Integer.BYTES;
+	private static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+	private static final int BLOCK_BALLS = 1 << 16;
+	private static final int UNKNOWN_COUNT = -1;
+	// Mapped (and faulted in) at once by the loader thread
+	private static final long WINDOW_BYTES = 64L << 20;
+	// CSV: bytes parsed per task, and the longest line allowed
+	private static final int CHUNK_BYTES = 8 << 20;
+	private static final int MAX_LINE_BYTES = 1 << 12;
+	private static final int MAX_IN_FLIGHT = 64;
+	private static final String CSV_SUFFIX = ".csv";
+	private static final String CSV_SEPARATOR = ",";
+	private static final int RADIX = 10;
+	// More digits than an int can have (keeps the long from overflowing)
+	private static final int MAX_DIGITS = 10;
+	// Main
+	private static final String USAGE =
+			"Usage: SceneLoader random <width> <height> <balls> <file> [seed]"
+			+ " | convert <scene> <file>";
+	private static final String RANDOM = "random";
+	private static final String CONVERT = "convert";
+	private static final int RANDOM_ARGS = 5;
+	private static final int CONVERT_ARGS = 3;
+	private static final int ARG_SEED = 5;
+	private static final long DEFAULT_SEED = 42;
+	private static final double NANOS_PER_SECOND = 1e9;
+	// Instance
+	private final Path file;
+	private final FileChannel channel;
+	private final long fileSize;
+	private final boolean binary;
+	private final int expectedCount;
+	private final Thread loader = new Thread(this::load, "scene-loader");
+	private final BlockingQueue<CompletableFuture<Block>> blocks = new LinkedBlockingQueue<>();
+	private final Semaphore inFlight = new Semaphore(MAX_IN_FLIGHT);
+	private volatile Runnable onReady = () -> { };
+	// Consumer only
+	private long startTick = -1;
+	private int loaded;
+	private boolean done;
+
+	/*
+	 * CONSTRUCTOR
+	 */
+	/**
+	 * Opens a binary or CSV scene (told apart by the magic number);
+	 * nothing is read until start().
+	 */
+	public SceneLoader(Path file) throws IOException {
+		this.file = file;
+		channel = FileChannel.open(file, StandardOpenOption.READ);
+		fileSize = channel.size();
+		var header = ByteBuffer.allocate(HEADER_BYTES).order(ORDER);
+		while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+			// reads the header (or the whole file, if shorter)
+		}
+		binary = header.position() == HEADER_BYTES && header.getInt(0) == MAGIC;
+		if (binary && header.getInt(Integer.BYTES) != VERSION) {
+			channel.close();
+			throw new IOException("Unsupported scene version: " + header.getInt(Integer.BYTES));
+		}
+		expectedCount = binary ? header.getInt(2 * Integer.BYTES) : UNKNOWN_COUNT;
+		loader.setDaemon(true);
+	}
+
+	/*
+	 * CONTROL
+	 */
+	public void start() {
+		loader.start();
+	}
+
+	/**
+	 * Starts loading; onReady runs (on a loader thread) whenever a new
+	 * block can be drained, e.g. to wake up a paused consumer.
+	 */
+	public void start(Runnable onReady) {
+		this.onReady = onReady;
+		start();
+	}
+
+	@Override
+	public void close() throws IOException {
+		loader.interrupt();
+		channel.close();
+	}
+
+	/*
+	 * GETTERS
+	 */
+	public Path getFile() {
+		return file;
+	}
+
+	public boolean isBinary() {
+		return binary;
+	}
+
+	/**
+	 * The number of balls in a binary scene, or -1 for CSV.
+	 */
+	public int getExpectedCount() {
+		return expectedCount;
+	}
+
+	public int getLoaded() {
+		return loaded;
+	}
+
+	/**
+	 * True once every block has been drained.
+	 */
+	public boolean isDone() {
+		return done;
+	}
+
+	/*
+	 * CONSUMER (the thread that steps the world)
+	 */
+	/**
+	 * Appends every block that is ready, without waiting, and returns the
+	 * number of balls added.
+	 */
+	public int drainInto(BallWorld world) throws IOException {
+		return drainInto(world, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Like drainInto(world), but stops once at least maxBalls were added
+	 * (at block granularity), to keep a tick short.
+	 */
+	public int drainInto(BallWorld world, int maxBalls) throws IOException {
+		begin(world);
+		var added = 0;
+		CompletableFuture<Block> head;
+		while (!done && added < maxBalls
+				&& (head = blocks.peek()) != null && head.isDone()) {
+			added += append(world, blocks.poll());
+		}
+		return added;
+	}
+
+	/**
+	 * Appends every remaining block, waiting for them as needed.
+	 */
+	public int drainAll(BallWorld world) throws IOException {
+		begin(world);
+		var added = 0;
+		try {
+			while (!done) {
+				added += append(world, blocks.take());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return added;
+	}
+
+	/**
+	 * The first drain fixes the tick the scene describes.
+	 */
+	private void begin(BallWorld world) {
+		if (startTick < 0) {
+			startTick = world.getTick();
+			if (expectedCount > 0) {
+				world.ensureCapacity(world.getCount() + expectedCount);
+			}
+		}
+	}
+
+	private int append(BallWorld world, CompletableFuture<Block> next) throws IOException {
+		Block block;
+		try {
+			block = next.join();
+		} catch (CompletionException e) {
+			done = true;
+			if (e.getCause() instanceof UncheckedIOException io) {
+				throw io.getCause();
+			}
+			throw e;
+		}
+		if (block == null) {
+			done = true;
+			return 0;
+		}
+		inFlight.release();
+
+		var first = world.extend(block.count);
+		block.copyInto(world.columns(), first);
+		var missed = world.getTick() - startTick;
+		if (missed > 0 && !world.isColliding()) {
+			world.advanceRange(first, first + block.count, missed);
+		}
+		loaded += block.count;
+		return block.count;
+	}
+
+	/*
+	 * LOADER THREAD
+	 * Hands over blocks in file order, then a null block as the end.
+	 */
+	private void load() {
+		try {
+			if (binary) {
+				loadBinary();
+			} else {
+				loadCsv();
+			}
+		} catch (IOException e) {
+			blocks.add(CompletableFuture.failedFuture(new UncheckedIOException(e)));
+		} catch (RuntimeException e) {
+			blocks.add(CompletableFuture.failedFuture(e));
+		} catch (InterruptedException e) {
+			// closed
+		} finally {
+			blocks.add(CompletableFuture.completedFuture(null));
+			onReady.run();
+		}
+	}
+
+	private void loadBinary() throws IOException, InterruptedException {
+		var position = (long) HEADER_BYTES;
+		while (position < fileSize) {
+			var window = map(position, WINDOW_BYTES);
+			// Read the pages in here, so the consumer's copy never waits on disk
+			window.load();
+			var offset = 0;
+			while (offset + BLOCK_HEADER_BYTES <= window.limit()) {
+				var n = window.getInt(offset);
+				if (n < 0) {
+					throw new IOException("Corrupt scene block at byte " + (position + offset) + " of " + file);
+				}
+				var bytes = BLOCK_HEADER_BYTES + (long) n * BallWorld.COLUMNS * Integer.BYTES;
+				if (offset + bytes > window.limit()) {
+					break;
+				}
+				var columns = window.slice(offset + BLOCK_HEADER_BYTES, (int) bytes - BLOCK_HEADER_BYTES)
+						.order(ORDER)
+						.asIntBuffer();
+				hand(CompletableFuture.completedFuture(new Block(columns, n, n)));
+				offset += (int) bytes;
+			}
+			if (offset == 0) {
+				throw new IOException("Truncated scene block at byte " + position + " of " + file);
+			}
+			position += offset;
+		}
+	}
+
+	private void loadCsv() throws IOException, InterruptedException {
+		var position = 0L;
+		while (position < fileSize) {
+			var window = map(position, CHUNK_BYTES + MAX_LINE_BYTES);
+			var end = window.limit();
+			if (position + end < fileSize) {
+				end = lineEnd(window, position);
+			}
+			var chunk = window.slice(0, end);
+			var chunkStart = position;
+			hand(CompletableFuture.supplyAsync(() -> parse(chunk, chunkStart), ForkJoinPool.commonPool()));
+			position += end;
+		}
+	}
+
+	/**
+	 * The end of the first line that ends after CHUNK_BYTES.
+	 */
+	private int lineEnd(ByteBuffer window, long position) throws IOException {
+		for (int i = Math.min(CHUNK_BYTES, window.limit()) - 1; i < window.limit(); i++) {
+			if (window.get(i) == '\n') {
+				return i + 1;
+			}
+		}
+		throw new IOException("Scene line longer than " + MAX_LINE_BYTES + " bytes near byte "
+				+ (position + CHUNK_BYTES) + " of " + file);
+	}
+
+	private MappedByteBuffer map(long position, long bytes) throws IOException {
+		var buffer = channel.map(MapMode.READ_ONLY, position, Math.min(bytes, fileSize - position));
+		buffer.order(ORDER);
+		return buffer;
+	}
+
+	private void hand(CompletableFuture<Block> block) throws InterruptedException {
+		inFlight.acquire();
+		blocks.add(block);
+		block.thenRun(onReady);
+	}
+
+	/*
+	 * CSV PARSER (pool threads)
+	 * Reads the mapped bytes directly; lines are counted first, so the
+	 * columns are allocated once.
+	 */
+	private Block parse(ByteBuffer chunk, long chunkStart) {
+		var end = chunk.limit();
+		var lines = 1;
+		for (int i = 0; i < end; i++) {
+			if (chunk.get(i) == '\n') {
+				lines++;
+			}
+		}
+		var columns = new int[lines * BallWorld.COLUMNS];
+		var count = 0;
+		var i = 0;
+		while (i < end) {
+			i = skipSpaces(chunk, i, end);
+			if (i == end) {
+				break;
+			}
+			var b = chunk.get(i);
+			if (b != '-' && b != '+' && (b < '0' || b > '9')) {
+				// blank line, header or comment
+				while (i < end && chunk.get(i) != '\n') {
+					i++;
+				}
+				i++;
+				continue;
+			}
+			for (int c = 0; c < BallWorld.COLUMNS; c++) {
+				i = skipSpaces(chunk, i, end);
+				var sign = i < end ? chunk.get(i) : 0;
+				var negative = sign == '-';
+				if (negative || sign == '+') {
+					i++;
+				}
+				var digitsStart = i;
+				long value = 0;
+				byte digit;
+				while (i < end && (digit = chunk.get(i)) >= '0' && digit <= '9') {
+					value = value * RADIX + (digit - '0');
+					i++;
+				}
+				value = negative ? -value : value;
+				if (i == digitsStart || i - digitsStart > MAX_DIGITS
+						|| value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+					throw malformed(chunkStart + digitsStart);
+				}
+				columns[c * lines + count] = (int) value;
+				i = skipSpaces(chunk, i, end);
+				var next = i < end ? chunk.get(i) : '\n';
+				if (next != (c == BallWorld.COLUMNS - 1 ? '\n' : ',')) {
+					throw malformed(chunkStart + i);
+				}
+				i++;
+			}
+			count++;
+		}
+		return new Block(IntBuffer.wrap(columns), count, lines);
+	}
+
+	private static int skipSpaces(ByteBuffer chunk, int i, int end) {
+		byte b;
+		while (i < end && ((b = chunk.get(i)) == ' ' || b == '\t' || b == '\r')) {
+			i++;
+		}
+		return i;
+	}
+
+	private UncheckedIOException malformed(long position) {
+		return new UncheckedIOException(new IOException(
+				"Malformed scene line at byte " + position + " of " + file
+				+ " (expected x,y,dX,dY,size)"));
+	}
+
+	/*
+	 * BLOCK
+	 * count balls, stored as BallWorld.COLUMNS columns of stride ints.
+	 */
+	private static class Block {
+
+		private final IntBuffer columns;
+		private final int count;
+		private final int stride;
+
+		Block(IntBuffer columns, int count, int stride) {
+			this.columns = columns;
+			this.count = count;
+			this.stride = stride;
+		}
+
+		void copyInto(int[][] target, int first) {
+			for (int c = 0; c < target.length; c++) {
+				columns.get(c * stride, target[c], first, count);
+			}
+		}
+
+	}
+
+	/*
+	 * WRITERS
+	 */
+	/**
+	 * Writes the world's balls as a binary scene, replacing the file if
+	 * it exists.
+	 */
+	public static void writeBinary(BallWorld world, Path file) throws IOException {
+		var count = world.getCount();
+		var columns = world.columns();
+		try (var channel = FileChannel.open(file,
+				StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.READ,
+				StandardOpenOption.WRITE)) {
+			channel.map(MapMode.READ_WRITE, 0, HEADER_BYTES).order(ORDER)
+					.putInt(MAGIC)
+					.putInt(VERSION)
+					.putInt(count);
+
+			var position = (long) HEADER_BYTES;
+			for (int from = 0; from < count; from += BLOCK_BALLS) {
+				var n = Math.min(BLOCK_BALLS, count - from);
+				var bytes = BLOCK_HEADER_BYTES + n * BallWorld.COLUMNS * Integer.BYTES;
+				var block = channel.map(MapMode.READ_WRITE, position, bytes).order(ORDER);
+				block.putInt(n);
+				var ints = block.asIntBuffer();
+				for (var column : columns) {
+					ints.put(column, from, n);
+				}
+				position += bytes;
+			}
+		}
+	}
+
+	public static void writeCsv(BallWorld world, Path file) throws IOException {
+		var columns = world.columns();
+		try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+			for (int i = 0; i < world.getCount(); i++) {
+				for (int c = 0; c < columns.length; c++) {
+					if (c > 0) {
+						writer.write(CSV_SEPARATOR);
+					}
+					writer.write(Integer.toString(columns[c][i]));
+				}
+				writer.newLine();
+			}
+		}
+	}
+
+	/*
+	 * MAIN
+	 */
+	public static void main(String[] args) throws IOException {
+		BallWorld world;
+		Path out;
+		if (args.length >= RANDOM_ARGS && args[0].equals(RANDOM)) {
+			var seed = args.length > ARG_SEED ? Long.parseLong(args[ARG_SEED]) : DEFAULT_SEED;
+			world = Scenes.random(
+					Integer.parseInt(args[1]),
+					Integer.parseInt(args[2]),
+					Integer.parseInt(args[3]),
+					Scenes.DEFAULT_SIZE,
+					seed);
+			out = Path.of(args[4]);
+		} else if (args.length == CONVERT_ARGS && args[0].equals(CONVERT)) {
+			world = new BallWorld(0, 0);
+			var start = System.nanoTime();
+			try (var scene = new SceneLoader(Path.of(args[1]))) {
+				scene.start();
+				scene.drainAll(world);
+			}
+			System.out.format("Loaded %d balls in %.3f s%n",
+					world.getCount(),
+					(System.nanoTime() - start) / NANOS_PER_SECOND);
+			out = Path.of(args[2]);
+		} else {
+			System.err.println(USAGE);
+			System.exit(1);
+			return;
+		}
+		if (out.getFileName().toString().endsWith(CSV_SUFFIX)) {
+			writeCsv(world, out);
+		} else {
+			writeBinary(world, out);
+		}
+	}
+
+}
@@ -0,0 +1,117 @@
+/**
+ * Scenes builds starting populations for a BallWorld (or an
+ * OffHeapBallStore, with the same balls for the same arguments):
+ * 		- The same defaults as the Swing examples' Ball().
+ * 		- Seeded random populations, so runs can be repeated.
+ * 
+ * STYLE NOTES
+ * Keeps the conventions of the other engine classes:
+ * 		- Strictly no magic numbers.
+ * 		- Static factory methods only; never instantiated.
+ */
+package com.github.atollysis.ballbounceprogram.engine;
+
+import java.util.SplittableRandom;
+
+public class Scenes {
+
+	/*
+	 * FIELDS
+	 */
+	// Defaults (same as ball2_propertychange.Ball)
+	public static final int DEFAULT_DIR = 5;
+	public static final int DEFAULT_SIZE = 100;
+	public static final int DEFAULT_COORDS = 1;
+
+	/*
+	 * CONSTRUCTOR
+	 */
+	private Scenes() {
+	}
+
+	/*
+	 * FACTORIES
+	 */
+	/**
+	 * One ball with the defaults of Ball().
+	 */
+	public static BallWorld single(int xLimit, int yLimit) {
+		var world = new BallWorld(xLimit, yLimit, 1);
+		world.add(DEFAULT_COORDS, DEFAULT_COORDS, DEFAULT_DIR, DEFAULT_DIR, DEFAULT_SIZE);
+		return world;
+	}
+
+	/**
+	 * Balls of the given size at random in-bounds positions, moving
+	 * in random directions with a speed of up to DEFAULT_DIR.
+	 */
+	public static BallWorld random(int xLimit, int yLimit, int balls, int size, long seed) {
+		return random(xLimit, yLimit, balls, size, seed, Anchor.TOP_LEFT);
+	}
+
+	public static BallWorld random(
+			int xLimit, int yLimit, int balls, int size, long seed, Anchor anchor) {
+		var world = new BallWorld(xLimit, yLimit, balls, anchor);
+		addRandom(world::add, xLimit, yLimit, balls, size, seed, anchor);
+		return world;
+	}
+
+	/**
+	 * One ball with the defaults of Ball(), stored off-heap.
+	 */
+	public static OffHeapBallStore singleOffHeap(int xLimit, int yLimit) {
+		var store = new OffHeapBallStore(xLimit, yLimit, 1);
+		store.add(DEFAULT_COORDS, DEFAULT_COORDS, DEFAULT_DIR, DEFAULT_DIR, DEFAULT_SIZE);
+		return store;
+	}
+
+	/**
+	 * The same balls as random(), stored off-heap without ever being
+	 * on the heap.
+	 */
+	public static OffHeapBallStore randomOffHeap(
+			int xLimit, int yLimit, int balls, int size, long seed) {
+		var store = new OffHeapBallStore(xLimit, yLimit, balls);
+		addRandom(store::add, xLimit, yLimit, balls, size, seed, Anchor.TOP_LEFT);
+		return store;
+	}
+
+	// Helpers
+	private static void addRandom(
+			Population population,
+			int xLimit, int yLimit, int balls, int size, long seed, Anchor anchor) {
+		var random = new SplittableRandom(seed);
+		for (int i = 0; i < balls; i++) {
+			population.add(
+					randomPosition(random, xLimit, size, anchor),
+					randomPosition(random, yLimit, size, anchor),
+					randomDirection(random),
+					randomDirection(random),
+					size);
+		}
+	}
+
+	private static int randomPosition(
+			SplittableRandom random, int limit, int size, Anchor anchor) {
+		// strictly inside the walls, like a ball that already bounced
+		var lo = anchor.lowerBound(size);
+		var room = Math.max(1, limit - size - lo - 1);
+		return lo + 1 + random.nextInt(room);
+	}
+
+	private static int randomDirection(SplittableRandom random) {
+		var speed = 1 + random.nextInt(DEFAULT_DIR);
+		return random.nextBoolean() ? speed : -speed;
+	}
+
+	/*
+	 * POPULATION
+	 * Anything balls can be added to (BallWorld, OffHeapBallStore).
+	 */
+	private interface Population {
+
+		void add(int x, int y, int dX, int dY, int size);
+
+	}
+
+}
@@ -0,0 +1,270 @@
+/**
+ * ShardCoordinator runs a BallWorld split over several processes:
+ * 		- The world is cut into vertical strips of equal width, one per
+ * 			ShardWorker process (started here with ProcessBuilder, on the
+ * 			same class path).
+ * 		- Every worker owns the balls in its strip and hands the ones
+ * 			that leave it to the neighbouring worker, over loopback
+ * 			sockets, once per tick.
+ * 		- The coordinator is the barrier: it sends STEP to every worker
+ * 			and waits for all of them to answer DONE (with the same tick)
+ * 			before the next tick, so no shard ever runs ahead.
+ * 		- At the end it collects every ball back; with "verify" it also
+ * 			runs the same world in this process and checks that the
+ * 			sharded result is the same set of balls.
+ * 		- A worker that exits or does not connect in time, or a shard
+ * 			that stops answering, fails the run with an IOException; at
+ * 			the end, workers that do not exit in time are killed.
+ * Ball-to-ball collisions are not supported, since a pair can straddle
+ * two shards.
+ * 
+ * USAGE
+ * 		ShardCoordinator <width> <height> <ticks> <shards> [balls] [seed] [verify]
+ * 
+ * STYLE NOTES
+ * Keeps the conventions of the other engine classes:
+ * 		- Strictly no magic numbers.
+ * 		- "var" where it's obvious.
+ */
+package com.github.atollysis.ballbounceprogram.engine;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+class ShardCoordinator {
+
+	/*
+	 * FIELDS
+	 */
+	private static final String USAGE =
+			"Usage: ShardCoordinator <width> <height> <ticks> <shards> [balls] [seed] [verify]";
+	private static final int MIN_ARGS = 4;
+	private static final int ARG_BALLS = 4;
+	private static final int ARG_SEED = 5;
+	private static final int ARG_VERIFY = 6;
+	private static final String VERIFY = "verify";
+	private static final int DEFAULT_BALLS = 1000;
+	private static final long DEFAULT_SEED = 42;
+	private static final double NANOS_PER_SECOND = 1e9;
+	// Timeouts: connecting (checking that workers are alive meanwhile),
+	// answering one request, and exiting once done
+	private static final long CONNECT_TIMEOUT_MILLIS = 30_000;
+	private static final int ACCEPT_POLL_MILLIS = 500;
+	private static final int REPLY_TIMEOUT_MILLIS = 60_000;
+	private static final long EXIT_TIMEOUT_MILLIS = 10_000;
+	// Instance
+	private final BallWorld world;
+	private final int shards;
+	private final Socket[] sockets;
+	private final DataInputStream[] inputs;
+	private final DataOutputStream[] outputs;
+	private final List<Process> processes = new ArrayList<>();
+
+	/*
+	 * MAIN
+	 */
+	public static void main(String[] args) throws Exception {
+		if (args.length < MIN_ARGS) {
+			System.err.println(USAGE);
+			System.exit(1);
+		}
+		var width = Integer.parseInt(args[0]);
+		var height = Integer.parseInt(args[1]);
+		var ticks = Long.parseLong(args[2]);
+		var shards = Integer.parseInt(args[3]);
+		var balls = args.length > ARG_BALLS ? Integer.parseInt(args[ARG_BALLS]) : DEFAULT_BALLS;
+		var seed = args.length > ARG_SEED ? Long.parseLong(args[ARG_SEED]) : DEFAULT_SEED;
+		var verify = args.length > ARG_VERIFY && VERIFY.equals(args[ARG_VERIFY]);
+
+		var world = Scenes.random(width, height, balls, Scenes.DEFAULT_SIZE, seed);
+		var coordinator = new ShardCoordinator(world, shards);
+		var start = System.nanoTime();
+		var result = coordinator.run(ticks);
+		var seconds = (System.nanoTime() - start) / NANOS_PER_SECOND;
+		System.out.format("Shards:       %d%n", shards);
+		System.out.format("Ticks:        %d in %.3f s (%.0f ticks/s)%n", ticks, seconds, ticks / seconds);
+		System.out.format("Balls:        %d%n", result.getCount());
+
+		if (verify) {
+			HeadlessRunner.run(world, ticks);
+			var same = Arrays.equals(sortedBalls(world), sortedBalls(result));
+			System.out.println(same ? "Verified:     same as one process" : "MISMATCH with one process");
+			if (!same) {
+				System.exit(1);
+			}
+		}
+	}
+
+	/*
+	 * CONSTRUCTOR
+	 */
+	ShardCoordinator(BallWorld world, int shards) {
+		this.world = world;
+		this.shards = shards;
+		sockets = new Socket[shards];
+		inputs = new DataInputStream[shards];
+		outputs = new DataOutputStream[shards];
+	}
+
+	/*
+	 * SERVICE METHOD
+	 */
+	/**
+	 * Runs the given number of ticks on the shards and returns the
+	 * collected result (the coordinator's own world is not changed).
+	 */
+	BallWorld run(long ticks) throws IOException, InterruptedException {
+		try (var server = new ServerSocket(0, shards, InetAddress.getLoopbackAddress())) {
+			startWorkers(server.getLocalPort());
+			server.setSoTimeout(ACCEPT_POLL_MILLIS);
+			var deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(CONNECT_TIMEOUT_MILLIS);
+			var ports = new int[shards];
+			for (int i = 0; i < shards; i++) {
+				var socket = accept(server, deadline);
+				socket.setSoTimeout(REPLY_TIMEOUT_MILLIS);
+				var in = ShardWorker.input(socket);
+				var index = in.readInt();
+				ports[index] = in.readInt();
+				sockets[index] = socket;
+				inputs[index] = in;
+				outputs[index] = ShardWorker.output(socket);
+			}
+			sendLayout(ports);
+
+			for (long t = 0; t < ticks; t++) {
+				tick(world.getTick() + t + 1);
+			}
+			return collect();
+		} finally {
+			for (var socket : sockets) {
+				if (socket != null) {
+					socket.close();
+				}
+			}
+			for (var process : processes) {
+				if (!process.waitFor(EXIT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+					process.destroyForcibly();
+				}
+			}
+		}
+	}
+
+	/**
+	 * The next worker's connection; fails if any worker exits, or if the
+	 * deadline passes first.
+	 */
+	private Socket accept(ServerSocket server, long deadline) throws IOException {
+		while (true) {
+			try {
+				return server.accept();
+			} catch (SocketTimeoutException e) {
+				for (int i = 0; i < processes.size(); i++) {
+					var process = processes.get(i);
+					if (!process.isAlive()) {
+						throw new IOException("Shard worker " + i + " exited with " + process.exitValue());
+					}
+				}
+				if (System.nanoTime() - deadline > 0) {
+					throw new IOException("Shard workers did not connect within "
+							+ CONNECT_TIMEOUT_MILLIS + " ms");
+				}
+			}
+		}
+	}
+
+	private void startWorkers(int port) throws IOException {
+		var java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+		var classPath = System.getProperty("java.class.path");
+		for (int i = 0; i < shards; i++) {
+			processes.add(new ProcessBuilder(
+					java, "-cp", classPath,
+					ShardWorker.class.getName(),
+					Integer.toString(port),
+					Integer.toString(i))
+					.inheritIO()
+					.start());
+		}
+	}
+
+	private void sendLayout(int[] ports) throws IOException {
+		var strips = new ShardProtocol.Batch[shards];
+		for (int i = 0; i < shards; i++) {
+			strips[i] = new ShardProtocol.Batch();
+		}
+		for (int i = 0; i < world.getCount(); i++) {
+			strips[stripOf(world.getX(i))].add(world, i);
+		}
+		for (int i = 0; i < shards; i++) {
+			var out = outputs[i];
+			out.writeInt(stripStart(i));
+			out.writeInt(stripStart(i + 1));
+			out.writeInt(world.getXLimit());
+			out.writeInt(world.getYLimit());
+			out.writeInt(world.getAnchor().ordinal());
+			out.writeInt(i > 0 ? ports[i - 1] : ShardProtocol.NO_NEIGHBOUR);
+			out.writeInt(i + 1 < shards ? ports[i + 1] : ShardProtocol.NO_NEIGHBOUR);
+			strips[i].write(out);
+		}
+	}
+
+	/**
+	 * The barrier: every shard does one tick before anyone goes on.
+	 */
+	private void tick(long expected) throws IOException {
+		for (var out : outputs) {
+			out.writeInt(ShardProtocol.STEP);
+			out.flush();
+		}
+		for (int i = 0; i < shards; i++) {
+			var reply = inputs[i].readInt();
+			var tick = inputs[i].readLong();
+			if (reply != ShardProtocol.DONE || tick != expected) {
+				throw new IOException("Shard " + i + " is out of step at tick " + tick);
+			}
+		}
+	}
+
+	private BallWorld collect() throws IOException {
+		var result = new BallWorld(world.getXLimit(), world.getYLimit(), world.getCount(), world.getAnchor());
+		for (int i = 0; i < shards; i++) {
+			outputs[i].writeInt(ShardProtocol.FINISH);
+			outputs[i].flush();
+			ShardProtocol.readInto(inputs[i], result);
+		}
+		return result;
+	}
+
+	// Helpers
+	private int stripStart(int shard) {
+		return (int) ((long) world.getXLimit() * shard / shards);
+	}
+
+	private int stripOf(int x) {
+		var shard = (int) ((long) Math.max(0, x) * shards / Math.max(1, world.getXLimit()));
+		return Math.min(shards - 1, shard);
+	}
+
+	/**
+	 * Every ball as a string, sorted (shards do not keep the order).
+	 */
+	private static String[] sortedBalls(BallWorld world) {
+		var balls = new String[world.getCount()];
+		for (int i = 0; i < balls.length; i++) {
+			balls[i] = world.getX(i) + "," + world.getY(i) + ","
+					+ world.getDX(i) + "," + world.getDY(i) + "," + world.getSize(i);
+		}
+		Arrays.sort(balls);
+		return balls;
+	}
+
+}
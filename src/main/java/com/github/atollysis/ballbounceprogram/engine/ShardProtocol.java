@@ -0,0 +1,105 @@
+/**
+ * ShardProtocol is what ShardCoordinator and ShardWorker say to each
+ * other over their loopback sockets (DataInput/DataOutput streams):
+ * 		- Worker to coordinator, once: its index and hand-off port.
+ * 		- Coordinator to worker, once: the shard layout (strip, world
+ * 			limits, anchor, neighbour ports) and the worker's balls.
+ * 		- Coordinator to worker, per tick: STEP; the worker answers
+ * 			with DONE and its tick once its hand-offs are exchanged.
+ * 		- Worker to neighbour, per tick: one batch of the balls that
+ * 			left its strip on that side (possibly empty).
+ * 		- Coordinator to worker, at the end: FINISH; the worker answers
+ * 			with a batch of all its balls.
+ * A batch is the number of balls followed by x, y, dX, dY and size of
+ * each ball.
+ * 
+ * STYLE NOTES
+ * Keeps the conventions of the other engine classes; package-private,
+ * static helpers only.
+ */
+package com.github.atollysis.ballbounceprogram.engine;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+class ShardProtocol {
+
+	/*
+	 * FIELDS
+	 */
+	static final int STEP = 1;
+	static final int DONE = 2;
+	static final int FINISH = 3;
+	static final int NO_NEIGHBOUR = -1;
+	static final int BALL_INTS = 5;
+	private static final int GROWTH_FACTOR = 2;
+
+	/*
+	 * CONSTRUCTOR
+	 */
+	private ShardProtocol() {
+	}
+
+	/*
+	 * BATCHES
+	 */
+	/**
+	 * A growable list of balls waiting to be sent.
+	 */
+	static class Batch {
+
+		private int[] values = new int[BALL_INTS];
+		private int count;
+
+		void add(BallWorld world, int ball) {
+			if ((count + 1) * BALL_INTS > values.length) {
+				values = Arrays.copyOf(values, values.length * GROWTH_FACTOR);
+			}
+			var at = count * BALL_INTS;
+			values[at] = world.getX(ball);
+			values[at + 1] = world.getY(ball);
+			values[at + 2] = world.getDX(ball);
+			values[at + 3] = world.getDY(ball);
+			values[at + 4] = world.getSize(ball);
+			count++;
+		}
+
+		void addAll(BallWorld world) {
+			for (int i = 0; i < world.getCount(); i++) {
+				add(world, i);
+			}
+		}
+
+		int getCount() {
+			return count;
+		}
+
+		void clear() {
+			count = 0;
+		}
+
+		void write(DataOutputStream out) throws IOException {
+			out.writeInt(count);
+			for (int i = 0; i < count * BALL_INTS; i++) {
+				out.writeInt(values[i]);
+			}
+			out.flush();
+		}
+
+	}
+
+	/**
+	 * Reads one batch and adds its balls to the world; returns how many.
+	 */
+	static int readInto(DataInputStream in, BallWorld world) throws IOException {
+		var count = in.readInt();
+		world.ensureCapacity(world.getCount() + count);
+		for (int i = 0; i < count; i++) {
+			world.add(in.readInt(), in.readInt(), in.readInt(), in.readInt(), in.readInt());
+		}
+		return count;
+	}
+
+}
@@ -0,0 +1,220 @@
+/**
+ * ShardWorker is one process of a sharded simulation (see
+ * ShardCoordinator):
+ * 		- It owns the balls whose x lies in its vertical strip of the
+ * 			world, in a BallWorld with the limits of the whole world,
+ * 			so each ball bounces exactly as in a single process.
+ * 		- On every STEP it moves its balls once, then hands the balls
+ * 			that left its strip to the left/right neighbour as one batch
+ * 			per side, and takes in theirs.
+ * 		- Batches are sent on a helper thread while this one reads, so
+ * 			two neighbours sending big batches to each other can never
+ * 			block on full socket buffers.
+ * A ball that jumps further than one strip in a tick is simply passed on
+ * again on the next tick; it is still moved exactly once per tick.
+ * 
+ * USAGE
+ * Started by ShardCoordinator:
+ * 		ShardWorker <coordinator port> <index>
+ * 
+ * STYLE NOTES
+ * Keeps the conventions of the other engine classes.
+ */
+package com.github.atollysis.ballbounceprogram.engine;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.github.atollysis.ballbounceprogram.engine.ShardProtocol.Batch;
+
+class ShardWorker {
+
+	/*
+	 * FIELDS
+	 */
+	private static final int ARG_PORT = 0;
+	private static final int ARG_INDEX = 1;
+	private static final int BACKLOG = 1;
+	// Layout
+	private final int index;
+	private int from;
+	private int to;
+	private BallWorld world;
+	// Connections
+	private final Socket coordinator;
+	private final DataInputStream fromCoordinator;
+	private final DataOutputStream toCoordinator;
+	private final ServerSocket handoffServer;
+	private Neighbour left;
+	private Neighbour right;
+	private final ExecutorService sender = Executors.newSingleThreadExecutor(runnable -> {
+		var thread = new Thread(runnable, "handoff");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	/*
+	 * MAIN
+	 */
+	public static void main(String[] args) throws Exception {
+		var worker = new ShardWorker(Integer.parseInt(args[ARG_PORT]), Integer.parseInt(args[ARG_INDEX]));
+		worker.run();
+	}
+
+	/*
+	 * CONSTRUCTOR
+	 */
+	ShardWorker(int coordinatorPort, int index) throws IOException {
+		this.index = index;
+		var loopback = InetAddress.getLoopbackAddress();
+		handoffServer = new ServerSocket(0, BACKLOG, loopback);
+		coordinator = new Socket(loopback, coordinatorPort);
+		fromCoordinator = input(coordinator);
+		toCoordinator = output(coordinator);
+	}
+
+	/*
+	 * PROTOCOL
+	 */
+	void run() throws IOException, InterruptedException, ExecutionException {
+		try {
+			toCoordinator.writeInt(index);
+			toCoordinator.writeInt(handoffServer.getLocalPort());
+			toCoordinator.flush();
+			readLayout();
+
+			while (true) {
+				var command = fromCoordinator.readInt();
+				if (command == ShardProtocol.STEP) {
+					step();
+					toCoordinator.writeInt(ShardProtocol.DONE);
+					toCoordinator.writeLong(world.getTick());
+					toCoordinator.flush();
+				} else if (command == ShardProtocol.FINISH) {
+					var all = new Batch();
+					all.addAll(world);
+					all.write(toCoordinator);
+					break;
+				} else {
+					throw new IOException("Unknown command: " + command);
+				}
+			}
+		} finally {
+			close();
+		}
+	}
+
+	private void close() throws IOException {
+		sender.shutdownNow();
+		try (coordinator; handoffServer) {
+			if (left != null) {
+				left.socket.close();
+			}
+			if (right != null) {
+				right.socket.close();
+			}
+		}
+	}
+
+	private void readLayout() throws IOException {
+		from = fromCoordinator.readInt();
+		to = fromCoordinator.readInt();
+		var xLimit = fromCoordinator.readInt();
+		var yLimit = fromCoordinator.readInt();
+		var anchorOrdinal = fromCoordinator.readInt();
+		var anchor = Anchor.fromOrdinal(anchorOrdinal);
+		if (anchor == null) {
+			throw new IOException("Unknown anchor in layout: " + anchorOrdinal);
+		}
+		var leftPort = fromCoordinator.readInt();
+		var rightPort = fromCoordinator.readInt();
+		world = new BallWorld(xLimit, yLimit, 0, anchor);
+		ShardProtocol.readInto(fromCoordinator, world);
+
+		// Connect to the right (already listening), then accept the left
+		if (rightPort != ShardProtocol.NO_NEIGHBOUR) {
+			right = new Neighbour(new Socket(InetAddress.getLoopbackAddress(), rightPort));
+		}
+		if (leftPort != ShardProtocol.NO_NEIGHBOUR) {
+			left = new Neighbour(handoffServer.accept());
+		}
+	}
+
+	/**
+	 * One tick: move, hand off, take in.
+	 */
+	private void step() throws IOException, InterruptedException, ExecutionException {
+		world.step();
+
+		// Going down, so the ball swapped in by remove() was already seen
+		for (int i = world.getCount() - 1; i >= 0; i--) {
+			var x = world.getX(i);
+			if (x < from && left != null) {
+				left.outgoing.add(world, i);
+				world.remove(i);
+			} else if (x >= to && right != null) {
+				right.outgoing.add(world, i);
+				world.remove(i);
+			}
+		}
+
+		Future<?> sent = sender.submit(() -> {
+			send(left);
+			send(right);
+			return null;
+		});
+		if (left != null) {
+			ShardProtocol.readInto(left.in, world);
+		}
+		if (right != null) {
+			ShardProtocol.readInto(right.in, world);
+		}
+		sent.get();
+	}
+
+	// Helpers
+	private static void send(Neighbour neighbour) throws IOException {
+		if (neighbour != null) {
+			neighbour.outgoing.write(neighbour.out);
+			neighbour.outgoing.clear();
+		}
+	}
+
+	static DataInputStream input(Socket socket) throws IOException {
+		socket.setTcpNoDelay(true);
+		return new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+	}
+
+	static DataOutputStream output(Socket socket) throws IOException {
+		return new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+	}
+
+	/*
+	 * NEIGHBOUR
+	 */
+	private static class Neighbour {
+
+		private final Socket socket;
+		private final DataInputStream in;
+		private final DataOutputStream out;
+		private final Batch outgoing = new Batch();
+
+		Neighbour(Socket socket) throws IOException {
+			this.socket = socket;
+			in = input(socket);
+			out = output(socket);
+		}
+
+	}
+
+}
@@ -0,0 +1,267 @@
+/**
+ * SimulationThread steps a BallWorld on its own thread, so painting and
+ * input never wait for the Model (and the other way around):
+ * 		- Ticks at a fixed period while running; paused, it sleeps until
+ * 			step(), setRunning() or setLimits() wakes it.
+ * 		- Only this thread touches the BallWorld. Other threads send
+ * 			requests (run/pause, single steps, new limits) through
+ * 			volatile/atomic fields, and anything else (e.g. a checkpoint)
+ * 			as a task run between two ticks.
+ * 		- A SceneLoader (if any) adds balls between ticks as they load,
+ * 			at most MAX_LOADED_PER_TICK per tick; paused, it wakes up to
+ * 			add every block as soon as it is ready.
+ * 		- After every tick the state is published to a SnapshotBuffer,
+ * 			which Views read without locks, and handed to the
+ * 			TrajectoryRecorder (if any), which never blocks the tick. If
+ * 			recording fails or its writer falls too far behind, the
+ * 			recorder is detached and the error reported (close() throws
+ * 			it again).
+ * 		- A tick that starts more than one period late does not try to
+ * 			catch up; TickMetrics counts the skipped ticks as missed.
+ * 			Waking up early (e.g. for a task) never ticks ahead of time,
+ * 			and step() is ignored while running.
+ * 
+ * STYLE NOTES
+ * Keeps the conventions of the other engine classes.
+ */
+package com.github.atollysis.ballbounceprogram.engine;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+public class SimulationThread {
+
+	/*
+	 * FIELDS
+	 */
+	private static final long NO_LIMITS = -1;
+	private static final int INT_BITS = Integer.SIZE;
+	private static final long INT_MASK = 0xFFFF_FFFFL;
+	// Keeps ticks short while a scene loads (20MB of columns)
+	private static final int MAX_LOADED_PER_TICK = 1 << 20;
+	// Instance
+	private final BallWorld world;
+	private final TickMetrics metrics;
+	private final long periodNanos;
+	private final SnapshotBuffer snapshots = new SnapshotBuffer();
+	private volatile Thread thread;
+	// Requests from other threads
+	private volatile boolean running;
+	private final AtomicLong pendingLimits = new AtomicLong(NO_LIMITS);
+	private final AtomicInteger pendingSteps = new AtomicInteger();
+	private volatile TrajectoryRecorder recorder;
+	private final Queue<Runnable> pendingTasks = new ConcurrentLinkedQueue<>();
+	// Simulation thread only
+	private SceneLoader scene;
+	private CompletableFuture<Void> sceneDone;
+
+	/*
+	 * CONSTRUCTOR
+	 */
+	public SimulationThread(BallWorld world, long periodMillis, TickMetrics metrics) {
+		this.world = world;
+		this.metrics = metrics;
+		periodNanos = TimeUnit.MILLISECONDS.toNanos(periodMillis);
+	}
+
+	/*
+	 * CONTROL (any thread)
+	 */
+	public void start() {
+		var thread = new Thread(this::run, "simulation");
+		thread.setDaemon(true);
+		this.thread = thread;
+		thread.start();
+	}
+
+	public boolean isRunning() {
+		return running;
+	}
+
+	public void setRunning(boolean running) {
+		if (running && !this.running) {
+			metrics.resume();
+		}
+		this.running = running;
+		LockSupport.unpark(thread);
+	}
+
+	/**
+	 * Moves one tick when paused, like the "Step" button (ignored while
+	 * running).
+	 */
+	public void step() {
+		if (running) {
+			return;
+		}
+		pendingSteps.incrementAndGet();
+		LockSupport.unpark(thread);
+	}
+
+	public void setLimits(int xLimit, int yLimit) {
+		pendingLimits.set(((long) xLimit << INT_BITS) | (yLimit & INT_MASK));
+		LockSupport.unpark(thread);
+	}
+
+	public void setRecorder(TrajectoryRecorder recorder) {
+		this.recorder = recorder;
+	}
+
+	/**
+	 * Writes a Checkpoint of the world between two ticks; the returned
+	 * future completes once the file is written.
+	 */
+	public CompletableFuture<Void> checkpoint(Path file) {
+		var done = new CompletableFuture<Void>();
+		pendingTasks.add(() -> {
+			try {
+				Checkpoint.write(world, file);
+				done.complete(null);
+			} catch (IOException | RuntimeException e) {
+				done.completeExceptionally(e);
+			}
+		});
+		LockSupport.unpark(thread);
+		return done;
+	}
+
+	/**
+	 * Streams the scene's balls into the world, starting now; the world
+	 * keeps ticking (if running) while it loads. The returned future
+	 * completes once every ball is in.
+	 */
+	public CompletableFuture<Void> load(SceneLoader scene) {
+		var done = new CompletableFuture<Void>();
+		pendingTasks.add(() -> {
+			this.scene = scene;
+			sceneDone = done;
+			// Only a paused loop needs waking: a running one drains every tick
+			scene.start(() -> {
+				if (!running) {
+					LockSupport.unpark(thread);
+				}
+			});
+		});
+		LockSupport.unpark(thread);
+		return done;
+	}
+
+	public SnapshotBuffer getSnapshots() {
+		return snapshots;
+	}
+
+	/*
+	 * LOOP (simulation thread only)
+	 */
+	private void run() {
+		snapshots.publish(world);
+		var nextTick = System.nanoTime();
+		while (true) {
+			runTasks();
+			applyLimits();
+			loadScene();
+			if (running) {
+				// Steps only apply while paused
+				pendingSteps.set(0);
+				if (System.nanoTime() - nextTick >= 0) {
+					timedStep();
+					nextTick += periodNanos;
+					var now = System.nanoTime();
+					if (now - nextTick > periodNanos) {
+						nextTick = now;
+					}
+				}
+				awaitTick(nextTick);
+			} else if (takeStep()) {
+				world.step();
+				publish();
+			} else {
+				LockSupport.park(this);
+				nextTick = System.nanoTime();
+			}
+		}
+	}
+
+	/**
+	 * Sleeps until the next tick is due, waking up early only to pause or
+	 * to run a task (after which the loop waits again).
+	 */
+	private void awaitTick(long nextTick) {
+		long left;
+		while (running && pendingTasks.isEmpty()
+				&& (left = nextTick - System.nanoTime()) > 0) {
+			LockSupport.parkNanos(this, left);
+		}
+	}
+
+	private void timedStep() {
+		metrics.tick();
+		var start = System.nanoTime();
+		world.step();
+		metrics.recordMove(System.nanoTime() - start);
+		publish();
+	}
+
+	private void publish() {
+		snapshots.publish(world);
+		var recorder = this.recorder;
+		if (recorder != null) {
+			try {
+				recorder.record(world);
+			} catch (IOException e) {
+				this.recorder = null;
+				System.err.println("Trajectory recording stopped: " + e);
+			}
+		}
+	}
+
+	private void runTasks() {
+		Runnable task;
+		while ((task = pendingTasks.poll()) != null) {
+			task.run();
+		}
+	}
+
+	private void loadScene() {
+		if (scene == null) {
+			return;
+		}
+		try {
+			// Running: one batch per tick. Paused: every block that is ready,
+			// publishing after each batch to show the new balls.
+			int added;
+			do {
+				added = scene.drainInto(world, MAX_LOADED_PER_TICK);
+				if (added > 0 && !running) {
+					snapshots.publish(world);
+				}
+			} while (added >= MAX_LOADED_PER_TICK && !running);
+			if (scene.isDone()) {
+				sceneDone.complete(null);
+				scene = null;
+			}
+		} catch (IOException | RuntimeException e) {
+			sceneDone.completeExceptionally(e);
+			scene = null;
+		}
+	}
+
+	private boolean takeStep() {
+		return pendingSteps.getAndUpdate(steps -> Math.max(0, steps - 1)) > 0;
+	}
+
+	private void applyLimits() {
+		var limits = pendingLimits.getAndSet(NO_LIMITS);
+		if (limits != NO_LIMITS) {
+			world.setLimits((int) (limits >>> INT_BITS), (int) limits);
+		}
+	}
+
+}
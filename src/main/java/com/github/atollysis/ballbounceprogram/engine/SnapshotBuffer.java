@@ -0,0 +1,141 @@
+/**
+ * SnapshotBuffer hands WorldSnapshots from the simulation thread (or
+ * another producer, like a TrajectoryPlayer) to one View thread without
+ * locks:
+ * 		- The writer fills its own snapshot, then swaps it into a shared
+ * 			slot with one atomic getAndSet().
+ * 		- The reader swaps the shared slot with its own snapshot, only
+ * 			when the slot holds a newer one.
+ * Three snapshots are used (writer's, shared, reader's), so each one is
+ * only ever held by one side: the writer never overwrites what the
+ * reader is drawing, and neither side waits for the other.
+ * Each snapshot also gets the positions of the one published before it
+ * (still read-only on either side), so the reader can interpolate.
+ * With indexing on, the writer also attaches a SpatialGrid to each
+ * snapshot, so the reader only pays for the balls it draws. Balls move
+ * at most a few units per tick, so a grid is shared by the following
+ * snapshots (with a margin that grows by each tick's fastest move) and
+ * only rebuilt once they have drifted half a cell, into a spare grid
+ * that no snapshot refers to.
+ * Supports one writer thread and one reader thread.
+ * 
+ * STYLE NOTES
+ * Keeps the conventions of the other engine classes.
+ */
+package com.github.atollysis.ballbounceprogram.engine;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+public class SnapshotBuffer {
+
+	/*
+	 * FIELDS
+	 */
+	// One more grid than snapshots, so one is always free to rebuild
+	private static final int GRIDS = 4;
+	// Rebuild once balls may have drifted this share of a cell
+	private static final double MAX_DRIFT_CELLS = 0.5;
+	// Instance
+	private final AtomicReference<WorldSnapshot> shared = new AtomicReference<>(new WorldSnapshot());
+	// Writer side
+	private WorldSnapshot back = new WorldSnapshot();
+	private WorldSnapshot last;
+	private long published;
+	private volatile boolean indexed;
+	private final WorldSnapshot[] snapshots = {shared.get(), back, null};
+	private final SpatialGrid[] grids = new SpatialGrid[GRIDS];
+	private SpatialGrid grid;
+	private long drift;
+	// Reader side
+	private WorldSnapshot front = new WorldSnapshot();
+
+	/*
+	 * WRITER
+	 */
+	public SnapshotBuffer() {
+		snapshots[2] = front;
+		for (int i = 0; i < GRIDS; i++) {
+			grids[i] = new SpatialGrid();
+		}
+	}
+
+	public void publish(BallWorld world) {
+		back.copyFrom(world, ++published);
+		swap(indexed ? world.maxSpeed() : 0);
+	}
+
+	/**
+	 * Publishes state that does not live in a BallWorld (e.g. a replay);
+	 * maxStep is the farthest any ball moved since the previous tick.
+	 */
+	public void publish(
+			int count, int[] x, int[] y, int[] size, Anchor anchor, long tick, int maxStep) {
+		back.copyFrom(count, x, y, size, anchor, tick, ++published);
+		swap(maxStep);
+	}
+
+	private void swap(int maxStep) {
+		back.keepPrevious(last);
+		index(maxStep);
+		last = back;
+		back = shared.getAndSet(back);
+	}
+
+	/**
+	 * Attaches the current grid to the back snapshot, rebuilding it
+	 * first if the balls may have drifted too far from it.
+	 */
+	private void index(int maxStep) {
+		if (!indexed) {
+			grid = null;
+			back.setGrid(null, 0);
+			return;
+		}
+		drift += maxStep;
+		if (grid == null
+				|| grid.getCount() != back.getCount()
+				|| drift > grid.getCellSize() * MAX_DRIFT_CELLS) {
+			grid = freeGrid();
+			back.buildGrid(grid);
+			// The previous tick's positions are still drawn
+			drift = maxStep;
+		}
+		back.setGrid(grid, (int) Math.min(Integer.MAX_VALUE, grid.getMaxSize() + drift));
+	}
+
+	private SpatialGrid freeGrid() {
+		for (var candidate : grids) {
+			var used = false;
+			for (var snapshot : snapshots) {
+				used |= snapshot.getGrid() == candidate;
+			}
+			if (!used) {
+				return candidate;
+			}
+		}
+		throw new IllegalStateException("No free grid");
+	}
+
+	/**
+	 * Turns building a SpatialGrid for every following snapshot on or
+	 * off (from any thread).
+	 */
+	public void setIndexed(boolean indexed) {
+		this.indexed = indexed;
+	}
+
+	/*
+	 * READER
+	 */
+	/**
+	 * Returns the newest published snapshot. It stays unchanged until
+	 * the next call to latest() from the same thread.
+	 */
+	public WorldSnapshot latest() {
+		if (shared.get().getSequence() > front.getSequence()) {
+			front = shared.getAndSet(front);
+		}
+		return front;
+	}
+
+}
@@ -0,0 +1,182 @@
+/**
+ * SpatialGrid indexes the balls of a WorldSnapshot by position, so a
+ * View can visit only the balls inside the region it shows:
+ * 		- A uniform grid over the balls' bounding box, with power-of-two
+ * 			cells (shifts, not divisions) sized for a few balls per cell,
+ * 			built with a counting sort on the producing thread (see
+ * 			SnapshotBuffer), not the View's.
+ * 		- Balls are stored in row-major cell order, so the cells of one
+ * 			row between two columns are one contiguous range: a query is
+ * 			one range per visible row, without any per-ball test.
+ * 		- A query widened by the snapshot's margin (the largest size plus
+ * 			how far balls moved since the build) never misses a partly
+ * 			visible ball.
+ * All arrays are reused between builds and only grow with the population.
+ *
+ * STYLE NOTES
+ * Keeps the conventions of the other engine classes.
+ */
+package com.github.atollysis.ballbounceprogram.engine;
+
+import java.util.Arrays;
+
+public class SpatialGrid {
+
+	/*
+	 * FIELDS
+	 */
+	private static final int BALLS_PER_CELL = 16;
+	// Grid
+	private int originX;
+	private int originY;
+	private int cellShift;
+	private int cellSize = 1;
+	private int columns = 1;
+	private int rows = 1;
+	private int maxSize;
+	private int[] cellStart = new int[2];
+	// Per ball
+	private int[] cellOf = new int[0];
+	private int[] order = new int[0];
+
+	/*
+	 * BUILD
+	 */
+	/**
+	 * Indexes the first count balls by their current position.
+	 */
+	void build(int[] x, int[] y, int[] size, int count) {
+		if (cellOf.length < count) {
+			cellOf = new int[count];
+			order = new int[count];
+		}
+
+		// Bounding box of the centers, and the largest ball
+		var minX = Integer.MAX_VALUE;
+		var minY = Integer.MAX_VALUE;
+		var maxX = Integer.MIN_VALUE;
+		var maxY = Integer.MIN_VALUE;
+		maxSize = 0;
+		for (int i = 0; i < count; i++) {
+			minX = Math.min(minX, x[i]);
+			maxX = Math.max(maxX, x[i]);
+			minY = Math.min(minY, y[i]);
+			maxY = Math.max(maxY, y[i]);
+			maxSize = Math.max(maxSize, size[i]);
+		}
+		if (count == 0) {
+			minX = maxX = minY = maxY = 0;
+		}
+		originX = minX;
+		originY = minY;
+
+		// Square cells holding about BALLS_PER_CELL balls each
+		var width = (long) maxX - minX + 1;
+		var height = (long) maxY - minY + 1;
+		var idealSize = (int) Math.ceil(
+				Math.sqrt((double) width * height * BALLS_PER_CELL / Math.max(1, count)));
+		cellShift = Integer.SIZE - Integer.numberOfLeadingZeros(Math.max(1, idealSize) - 1);
+		cellSize = 1 << cellShift;
+		columns = (int) (((width - 1) >>> cellShift) + 1);
+		rows = (int) (((height - 1) >>> cellShift) + 1);
+		var cellCount = columns * rows;
+		if (cellStart.length < cellCount + 1) {
+			cellStart = new int[cellCount + 1];
+		} else {
+			Arrays.fill(cellStart, 0, cellCount + 1, 0);
+		}
+
+		// Counting sort of balls by cell
+		for (int i = 0; i < count; i++) {
+			// Unsigned: the distance from the origin may not fit an int
+			var cell = ((y[i] - originY) >>> cellShift) * columns
+					+ ((x[i] - originX) >>> cellShift);
+			cellOf[i] = cell;
+			cellStart[cell + 1]++;
+		}
+		for (int c = 0; c < cellCount; c++) {
+			cellStart[c + 1] += cellStart[c];
+		}
+		for (int i = 0; i < count; i++) {
+			// cellStart[cell] is used as the insert cursor, then restored
+			order[cellStart[cellOf[i]]++] = i;
+		}
+		for (int c = cellCount; c > 0; c--) {
+			cellStart[c] = cellStart[c - 1];
+		}
+		cellStart[0] = 0;
+	}
+
+	/*
+	 * QUERIES
+	 */
+	public int getColumns() {
+		return columns;
+	}
+
+	public int getRows() {
+		return rows;
+	}
+
+	/**
+	 * The number of balls indexed (0 before the first build).
+	 */
+	public int getCount() {
+		return cellStart[columns * rows];
+	}
+
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	public int getCellSize() {
+		return cellSize;
+	}
+
+	/**
+	 * The column holding world coordinate x (clamped into the grid).
+	 */
+	public int column(double x) {
+		return (int) Math.min(columns - 1, Math.max(0, Math.floor((x - originX) / cellSize)));
+	}
+
+	/**
+	 * The row holding world coordinate y (clamped into the grid).
+	 */
+	public int row(double y) {
+		return (int) Math.min(rows - 1, Math.max(0, Math.floor((y - originY) / cellSize)));
+	}
+
+	/**
+	 * Where the given cell starts in the cell order; the balls of columns
+	 * [from, to] of a row are ball(k) for k in
+	 * [start(row, from), start(row, to + 1)).
+	 */
+	public int start(int row, int column) {
+		return cellStart[row * columns + column];
+	}
+
+	public int ball(int k) {
+		return order[k];
+	}
+
+	/*
+	 * BOUNDS (of the ball centers)
+	 */
+	public int getMinX() {
+		return originX;
+	}
+
+	public int getMinY() {
+		return originY;
+	}
+
+	public int getMaxX() {
+		return originX + (columns << cellShift);
+	}
+
+	public int getMaxY() {
+		return originY + (rows << cellShift);
+	}
+
+}
@@ -0,0 +1,279 @@
+/**
+ * TickMetrics records how well a Controller keeps its tick cadence and
+ * publishes it over JMX (as com.github.atollysis.ballbounceprogram:
+ * type=TickMetrics,name=...):
+ * 		- tick() is called at the start of every timer tick; a gap of
+ * 			more than one and a half periods counts the skipped ticks as
+ * 			missed (Swing's Timer coalesces them silently).
+ * 		- resume() is called when the animation plays again, so the
+ * 			first tick after a pause does not count it as missed ticks.
+ * 		- recordMove(), recordPaint() and recordDispatch() feed
+ * 			power-of-two histograms (see Histogram).
+ * 		- The histograms' getters give the bucket counts, where bucket k
+ * 			holds durations in [2^(k-1), 2^k) nanoseconds.
+ * 		- recordProduced() and recordDrained() count position updates
+ * 			sent to a View, and how many of them it actually drew or
+ * 			dropped (superseded before it got to them; see
+ * 			LatestValueMailbox).
+ * Recording is allocation-free and safe from any thread.
+ * 
+ * STYLE NOTES
+ * Keeps the conventions of the other engine classes.
+ */
+package com.github.atollysis.ballbounceprogram.engine;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+public class TickMetrics implements TickMetricsMBean {
+
+	/*
+	 * FIELDS
+	 */
+	private static final String DOMAIN = "com.github.atollysis.ballbounceprogram";
+	private static final double NANOS_PER_MICRO = 1e3;
+	private static final double NANOS_PER_SECOND = 1e9;
+	private static final double P99 = 0.99;
+	// A tick this late (in periods) means ticks were skipped
+	private static final double MISSED_THRESHOLD = 1.5;
+	// Weight of the newest interval in the achieved rate average
+	private static final double RATE_SMOOTHING = 0.05;
+	// Instance
+	private final long periodNanos;
+	private final Histogram move = new Histogram();
+	private final Histogram paint = new Histogram();
+	private final Histogram dispatch = new Histogram();
+	// Cadence (only written by the ticking thread)
+	private volatile long ticks;
+	private volatile long missedTicks;
+	private volatile double meanIntervalNanos;
+	private long lastTickNanos;
+	// Set by resume() (any thread), cleared by the next tick
+	private volatile boolean resumed;
+	// Updates (produced by the Model's thread, drained by the View's)
+	private volatile long producedUpdates;
+	private volatile long renderedUpdates;
+	private volatile long droppedUpdates;
+
+	/*
+	 * CONSTRUCTOR
+	 */
+	public TickMetrics(long periodMillis) {
+		periodNanos = TimeUnit.MILLISECONDS.toNanos(periodMillis);
+		meanIntervalNanos = periodNanos;
+	}
+
+	/**
+	 * Creates metrics for a tick period and registers them with the
+	 * platform MBeanServer. If registration fails (e.g. the name is
+	 * taken), the metrics are still returned and recorded.
+	 */
+	public static TickMetrics register(String name, long periodMillis) {
+		var metrics = new TickMetrics(periodMillis);
+		try {
+			ManagementFactory.getPlatformMBeanServer().registerMBean(
+					metrics,
+					new ObjectName(DOMAIN + ":type=TickMetrics,name=" + name));
+		} catch (JMException e) {
+			System.err.println("TickMetrics " + name + " not registered over JMX: " + e);
+		}
+		return metrics;
+	}
+
+	/*
+	 * RECORDING
+	 */
+	public void tick() {
+		var now = System.nanoTime();
+		if (resumed) {
+			resumed = false;
+		} else if (ticks > 0) {
+			var interval = now - lastTickNanos;
+			if (interval > MISSED_THRESHOLD * periodNanos) {
+				missedTicks += Math.round((double) interval / periodNanos) - 1;
+			}
+			meanIntervalNanos += RATE_SMOOTHING * (interval - meanIntervalNanos);
+		}
+		lastTickNanos = now;
+		ticks++;
+	}
+
+	/**
+	 * Starts a new cadence: the next tick() is not measured against the
+	 * last one before the pause. Safe from any thread.
+	 */
+	public void resume() {
+		resumed = true;
+	}
+
+	public void recordMove(long nanos) {
+		move.record(nanos);
+	}
+
+	public void recordPaint(long nanos) {
+		paint.record(nanos);
+	}
+
+	public void recordDispatch(long nanos) {
+		dispatch.record(nanos);
+	}
+
+	public void recordProduced() {
+		producedUpdates++;
+	}
+
+	/**
+	 * Records one drain by the View, which found the given number of
+	 * updates since its last drain: it draws the newest one and the
+	 * others are dropped.
+	 */
+	public void recordDrained(long updates) {
+		if (updates > 0) {
+			renderedUpdates++;
+			droppedUpdates += updates - 1;
+		}
+	}
+
+	/*
+	 * MBEAN: CADENCE
+	 */
+	@Override
+	public double getRequestedTickRate() {
+		return NANOS_PER_SECOND / periodNanos;
+	}
+
+	@Override
+	public double getAchievedTickRate() {
+		return NANOS_PER_SECOND / meanIntervalNanos;
+	}
+
+	@Override
+	public long getTicks() {
+		return ticks;
+	}
+
+	@Override
+	public long getMissedTicks() {
+		return missedTicks;
+	}
+
+	/*
+	 * MBEAN: MOVE
+	 */
+	@Override
+	public long getMoveCount() {
+		return move.getCount();
+	}
+
+	@Override
+	public double getMoveMeanMicros() {
+		return move.getMean() / NANOS_PER_MICRO;
+	}
+
+	@Override
+	public double getMoveP99Micros() {
+		return move.getPercentile(P99) / NANOS_PER_MICRO;
+	}
+
+	@Override
+	public double getMoveMaxMicros() {
+		return move.getMax() / NANOS_PER_MICRO;
+	}
+
+	@Override
+	public long[] getMoveHistogram() {
+		return move.getBuckets();
+	}
+
+	/*
+	 * MBEAN: PAINT / PULSE
+	 */
+	@Override
+	public long getPaintCount() {
+		return paint.getCount();
+	}
+
+	@Override
+	public double getPaintMeanMicros() {
+		return paint.getMean() / NANOS_PER_MICRO;
+	}
+
+	@Override
+	public double getPaintP99Micros() {
+		return paint.getPercentile(P99) / NANOS_PER_MICRO;
+	}
+
+	@Override
+	public double getPaintMaxMicros() {
+		return paint.getMax() / NANOS_PER_MICRO;
+	}
+
+	@Override
+	public long[] getPaintHistogram() {
+		return paint.getBuckets();
+	}
+
+	/*
+	 * MBEAN: LISTENER DISPATCH
+	 */
+	@Override
+	public long getDispatchCount() {
+		return dispatch.getCount();
+	}
+
+	@Override
+	public double getDispatchMeanMicros() {
+		return dispatch.getMean() / NANOS_PER_MICRO;
+	}
+
+	@Override
+	public double getDispatchP99Micros() {
+		return dispatch.getPercentile(P99) / NANOS_PER_MICRO;
+	}
+
+	@Override
+	public double getDispatchMaxMicros() {
+		return dispatch.getMax() / NANOS_PER_MICRO;
+	}
+
+	@Override
+	public long[] getDispatchHistogram() {
+		return dispatch.getBuckets();
+	}
+
+	/*
+	 * MBEAN: UPDATES
+	 */
+	@Override
+	public long getProducedUpdates() {
+		return producedUpdates;
+	}
+
+	@Override
+	public long getRenderedUpdates() {
+		return renderedUpdates;
+	}
+
+	@Override
+	public long getDroppedUpdates() {
+		return droppedUpdates;
+	}
+
+	/*
+	 * MBEAN: OPERATIONS
+	 */
+	@Override
+	public void reset() {
+		move.reset();
+		paint.reset();
+		dispatch.reset();
+		missedTicks = 0;
+		producedUpdates = 0;
+		renderedUpdates = 0;
+		droppedUpdates = 0;
+	}
+
+}
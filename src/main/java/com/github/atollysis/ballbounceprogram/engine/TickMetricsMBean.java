@@ -0,0 +1,73 @@
+/**
+ * TickMetricsMBean is the JMX management interface of TickMetrics.
+ * Durations are reported in microseconds; rates in ticks per second.
+ */
+package com.github.atollysis.ballbounceprogram.engine;
+
+public interface TickMetricsMBean {
+
+	/*
+	 * CADENCE
+	 */
+	double getRequestedTickRate();
+
+	double getAchievedTickRate();
+
+	long getTicks();
+
+	long getMissedTicks();
+
+	/*
+	 * MOVE (includes notifying listeners)
+	 */
+	long getMoveCount();
+
+	double getMoveMeanMicros();
+
+	double getMoveP99Micros();
+
+	double getMoveMaxMicros();
+
+	long[] getMoveHistogram();
+
+	/*
+	 * PAINT / PULSE
+	 */
+	long getPaintCount();
+
+	double getPaintMeanMicros();
+
+	double getPaintP99Micros();
+
+	double getPaintMaxMicros();
+
+	long[] getPaintHistogram();
+
+	/*
+	 * LISTENER DISPATCH
+	 */
+	long getDispatchCount();
+
+	double getDispatchMeanMicros();
+
+	double getDispatchP99Micros();
+
+	double getDispatchMaxMicros();
+
+	long[] getDispatchHistogram();
+
+	/*
+	 * UPDATES (produced = rendered + dropped + not yet drained)
+	 */
+	long getProducedUpdates();
+
+	long getRenderedUpdates();
+
+	long getDroppedUpdates();
+
+	/*
+	 * OPERATIONS
+	 */
+	void reset();
+
+}
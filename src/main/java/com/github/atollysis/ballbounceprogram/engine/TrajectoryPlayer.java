@@ -0,0 +1,244 @@
+/**
+ * TrajectoryPlayer reads a file written by TrajectoryRecorder:
+ * 		- next() decodes one frame at a time through memory-mapped
+ * 			windows of the file, so recordings larger than memory (or
+ * 			than one 2GB mapping) stream through.
+ * 		- Frames end at the end of the file or at a zero length (a
+ * 			recording cut short by a crash); a frame that is truncated or
+ * 			does not match its length throws an IOException.
+ * 		- play() replays the frames on its own thread into a
+ * 			SnapshotBuffer (which a View such as BallCanvasView draws),
+ * 			at any speed: 1 is real time, 2 twice as fast, and 0 (or
+ * 			less) as fast as frames can be decoded.
+ * 
+ * STYLE NOTES
+ * Keeps the conventions of the other engine classes.
+ */
+package com.github.atollysis.ballbounceprogram.engine;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+public class TrajectoryPlayer implements AutoCloseable {
+
+	/*
+	 * FIELDS
+	 */
+	private static final long WINDOW_BYTES = 256L << 20;
+	// Instance
+	private final FileChannel channel;
+	private final long fileSize;
+	private final Anchor anchor;
+	private final long periodMillis;
+	private MappedByteBuffer buffer;
+	private long windowStart;
+	// Current frame
+	private int[] x = new int[0];
+	private int[] y = new int[0];
+	private int[] size = new int[0];
+	private int count;
+	private long tick;
+	// Farthest move of any ball in the current frame
+	private int maxStep;
+	// Playback
+	private volatile boolean paused;
+	private Thread player;
+
+	/*
+	 * CONSTRUCTOR
+	 */
+	public TrajectoryPlayer(Path file) throws IOException {
+		channel = FileChannel.open(file, StandardOpenOption.READ);
+		fileSize = channel.size();
+		map(0, TrajectoryRecorder.HEADER_BYTES);
+		if (fileSize < TrajectoryRecorder.HEADER_BYTES
+				|| buffer.getInt() != TrajectoryRecorder.MAGIC) {
+			channel.close();
+			throw new IOException("Not a trajectory file: " + file);
+		}
+		var version = buffer.getInt();
+		if (version != TrajectoryRecorder.VERSION) {
+			channel.close();
+			throw new IOException("Unsupported trajectory version: " + version);
+		}
+		anchor = Anchor.fromOrdinal(buffer.getInt());
+		periodMillis = buffer.getLong();
+		if (anchor == null || periodMillis <= 0) {
+			channel.close();
+			throw new IOException("Corrupt trajectory file header: " + file);
+		}
+	}
+
+	/*
+	 * GETTERS
+	 */
+	public Anchor getAnchor() {
+		return anchor;
+	}
+
+	public long getPeriodMillis() {
+		return periodMillis;
+	}
+
+	public int getCount() {
+		return count;
+	}
+
+	public int getX(int ball) {
+		return x[ball];
+	}
+
+	public int getY(int ball) {
+		return y[ball];
+	}
+
+	public int getSize(int ball) {
+		return size[ball];
+	}
+
+	public long getTick() {
+		return tick;
+	}
+
+	/*
+	 * DECODING
+	 */
+	/**
+	 * Decodes the next frame. Returns false at the end of the recording.
+	 */
+	public boolean next() throws IOException {
+		var frameStart = windowStart + buffer.position();
+		if (frameStart >= fileSize) {
+			return false;
+		}
+		if (!ensureAvailable(Integer.BYTES)) {
+			throw new IOException("Truncated trajectory frame at byte " + frameStart);
+		}
+		var length = buffer.getInt();
+		if (length == TrajectoryRecorder.END_OF_FRAMES) {
+			// Back on the marker, so every later call ends too
+			buffer.position(buffer.position() - Integer.BYTES);
+			return false;
+		}
+		if (length < 0 || !ensureAvailable(length)) {
+			throw new IOException("Truncated trajectory frame at byte " + frameStart);
+		}
+		var start = buffer.position();
+		try {
+			decode(length, frameStart);
+		} catch (BufferUnderflowException e) {
+			throw new IOException("Corrupt trajectory frame at byte " + frameStart, e);
+		}
+		if (buffer.position() - start != length) {
+			throw new IOException("Corrupt trajectory frame at byte " + frameStart);
+		}
+		return true;
+	}
+
+	private void decode(int length, long frameStart) throws IOException {
+		count = VarInts.getUnsignedInt(buffer);
+		// Every ball takes at least one byte per coordinate
+		if (count < 0 || count > length / 2) {
+			throw new IOException("Corrupt trajectory frame at byte " + frameStart);
+		}
+		tick = VarInts.getUnsignedLong(buffer);
+		var hasSizes = (buffer.get() & TrajectoryRecorder.FLAG_SIZES) != 0;
+
+		if (x.length < count) {
+			x = Arrays.copyOf(x, count);
+			y = Arrays.copyOf(y, count);
+			size = Arrays.copyOf(size, count);
+		}
+		var step = 0;
+		for (int i = 0; i < count; i++) {
+			var stepX = VarInts.getSigned(buffer);
+			var stepY = VarInts.getSigned(buffer);
+			x[i] += stepX;
+			y[i] += stepY;
+			step = Math.max(step, Math.max(Math.abs(stepX), Math.abs(stepY)));
+		}
+		maxStep = step;
+		if (hasSizes) {
+			for (int i = 0; i < count; i++) {
+				size[i] = VarInts.getUnsignedInt(buffer);
+			}
+		}
+	}
+
+	/**
+	 * Makes sure the window holds at least the given bytes. Returns false
+	 * if the file ends first.
+	 */
+	private boolean ensureAvailable(long bytes) throws IOException {
+		var position = windowStart + buffer.position();
+		if (position + bytes > fileSize) {
+			return false;
+		}
+		if (buffer.remaining() < bytes) {
+			map(position, bytes);
+		}
+		return true;
+	}
+
+	private void map(long position, long minBytes) throws IOException {
+		windowStart = position;
+		var length = Math.min(Math.max(WINDOW_BYTES, minBytes), fileSize - position);
+		buffer = channel.map(MapMode.READ_ONLY, position, length);
+	}
+
+	/*
+	 * PLAYBACK
+	 */
+	/**
+	 * Replays the remaining frames into the target on a new thread.
+	 */
+	public void play(SnapshotBuffer target, double speed) {
+		player = new Thread(() -> replay(target, speed), "trajectory-player");
+		player.setDaemon(true);
+		player.start();
+	}
+
+	public boolean isPaused() {
+		return paused;
+	}
+
+	public void setPaused(boolean paused) {
+		this.paused = paused;
+		LockSupport.unpark(player);
+	}
+
+	private void replay(SnapshotBuffer target, double speed) {
+		var frameNanos = speed > 0
+				? (long) (TimeUnit.MILLISECONDS.toNanos(periodMillis) / speed)
+				: 0;
+		var nextFrame = System.nanoTime();
+		try {
+			while (next()) {
+				while (paused) {
+					LockSupport.park(this);
+					nextFrame = System.nanoTime();
+				}
+				target.publish(count, x, y, size, anchor, tick, maxStep);
+				nextFrame += frameNanos;
+				LockSupport.parkNanos(this, nextFrame - System.nanoTime());
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+}
@@ -0,0 +1,249 @@
+/**
+ * TrajectoryRecorder appends every recorded tick of a BallWorld to a
+ * compact binary log, written through memory-mapped chunks of the file:
+ * 		- record() only copies the positions into a pooled frame and
+ * 			hands it to a writer thread; it never waits for the writer.
+ * 			If no frame is free, the pool grows up to MAX_BUFFERED_BYTES
+ * 			(and at least POOLED_FRAMES frames).
+ * 		- If the writer falls behind further than that, or writing fails,
+ * 			record() (and close()) throw an IOException, so a recording
+ * 			with a gap never goes unnoticed. The frames already queued are
+ * 			still written, so the log holds every tick up to the gap.
+ * 		- Positions are stored as zigzag varint deltas from the previous
+ * 			frame, so a ball moving up to 63px per tick costs 2 bytes.
+ * 		- Sizes are only stored when the number of balls changes.
+ * 		- Each frame starts with its length, written once the frame is
+ * 			complete. The file is extended ahead in chunks (trimmed by
+ * 			close()), so after a crash the frames end at the first zero
+ * 			length instead of decoding the zeros as empty frames.
+ * 
+ * FILE FORMAT (version 2)
+ * 		header:	int magic "BBTR", int version, int anchor ordinal,
+ * 				long tick period in ms
+ * 		frame:	int length of the rest of the frame (0 = end),
+ * 				varint count, varlong tick, byte flags (1 = has sizes),
+ * 				count x (zigzag dx, zigzag dy), [count x varint size]
+ * Read it back with TrajectoryPlayer.
+ * 
+ * STYLE NOTES
+ * Keeps the conventions of the other engine classes.
+ */
+package com.github.atollysis.ballbounceprogram.engine;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TrajectoryRecorder implements AutoCloseable {
+
+	/*
+	 * FIELDS
+	 */
+	static final int MAGIC = 0x42425452; // "BBTR"
+	static final int VERSION = 2;
+	static final int HEADER_BYTES = 3 * Integer.BYTES + Long.BYTES;
+	static final int END_OF_FRAMES = 0;
+	static final byte FLAG_SIZES = 1;
+	// Per ball: dx, dy and (sometimes) size
+	static final int MAX_BALL_BYTES = 3 * VarInts.MAX_INT_BYTES;
+	static final int MAX_FRAME_HEADER_BYTES =
+			Integer.BYTES + VarInts.MAX_INT_BYTES + VarInts.MAX_LONG_BYTES + 1;
+	private static final long CHUNK_BYTES = 64L << 20;
+	private static final int POOLED_FRAMES = 8;
+	private static final int MAX_FRAMES = 1024;
+	// Per ball in a queued frame: x, y and size
+	private static final int FRAME_BALL_BYTES = 3 * Integer.BYTES;
+	private static final long MAX_BUFFERED_BYTES = 256L << 20;
+	private static final Frame END = new Frame();
+	// Instance
+	private final FileChannel channel;
+	private final BlockingQueue<Frame> free = new ArrayBlockingQueue<>(MAX_FRAMES);
+	private final BlockingQueue<Frame> full = new ArrayBlockingQueue<>(MAX_FRAMES + 1);
+	private final Thread writer = new Thread(this::writeFrames, "trajectory-writer");
+	private final AtomicLong recorded = new AtomicLong();
+	private volatile IOException failure;
+	private volatile boolean closed;
+	// Simulation thread only
+	private int frames = POOLED_FRAMES;
+	// Writer thread only
+	private MappedByteBuffer buffer;
+	private long mappedStart;
+	private int[] previousX = new int[0];
+	private int[] previousY = new int[0];
+	private int previousCount = -1;
+
+	/*
+	 * CONSTRUCTOR
+	 */
+	public TrajectoryRecorder(Path file, Anchor anchor, long periodMillis) throws IOException {
+		channel = FileChannel.open(file,
+				StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		map(0, HEADER_BYTES);
+		buffer.putInt(MAGIC);
+		buffer.putInt(VERSION);
+		buffer.putInt(anchor.ordinal());
+		buffer.putLong(periodMillis);
+
+		for (int i = 0; i < POOLED_FRAMES; i++) {
+			free.add(new Frame());
+		}
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	/*
+	 * RECORDING (simulation thread)
+	 */
+	/**
+	 * Queues the world's current positions without waiting. Returns false
+	 * if the recorder was closed, and throws an IOException if writing
+	 * failed or the writer fell too far behind to keep every tick.
+	 */
+	public boolean record(BallWorld world) throws IOException {
+		if (failure != null) {
+			throw failure;
+		}
+		if (closed) {
+			return false;
+		}
+		var frame = free.poll();
+		if (frame == null) {
+			if (!canGrow(world.getCount())) {
+				failure = new IOException("Trajectory writer fell behind: recording stops before tick "
+						+ world.getTick() + " (" + frames + " frames queued)");
+				throw failure;
+			}
+			frame = new Frame();
+			frames++;
+		}
+		frame.copyFrom(world);
+		full.add(frame);
+		recorded.incrementAndGet();
+		return true;
+	}
+
+	private boolean canGrow(int count) {
+		return frames < MAX_FRAMES
+				&& (long) (frames + 1) * count * FRAME_BALL_BYTES <= MAX_BUFFERED_BYTES;
+	}
+
+	public long getRecorded() {
+		return recorded.get();
+	}
+
+	/**
+	 * Waits for the queued frames, then trims the file to its content.
+	 */
+	@Override
+	public void close() throws IOException {
+		closed = true;
+		try {
+			full.put(END);
+			writer.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		if (buffer != null) {
+			channel.truncate(mappedStart + buffer.position());
+		}
+		channel.close();
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	/*
+	 * WRITER THREAD
+	 */
+	private void writeFrames() {
+		try {
+			while (true) {
+				var frame = full.take();
+				if (frame == END) {
+					return;
+				}
+				write(frame);
+				free.add(frame);
+			}
+		} catch (IOException e) {
+			failure = e;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void write(Frame frame) throws IOException {
+		var count = frame.count;
+		var maxBytes = MAX_FRAME_HEADER_BYTES + (long) count * MAX_BALL_BYTES;
+		if (buffer.remaining() < maxBytes) {
+			map(mappedStart + buffer.position(), maxBytes);
+		}
+
+		// The length is filled in once the frame is complete
+		var start = buffer.position();
+		buffer.putInt(END_OF_FRAMES);
+		var hasSizes = count != previousCount;
+		VarInts.putUnsigned(buffer, count);
+		VarInts.putUnsigned(buffer, frame.tick);
+		buffer.put(hasSizes ? FLAG_SIZES : 0);
+
+		if (previousX.length < count) {
+			previousX = Arrays.copyOf(previousX, count);
+			previousY = Arrays.copyOf(previousY, count);
+		}
+		for (int i = 0; i < count; i++) {
+			VarInts.putSigned(buffer, frame.x[i] - previousX[i]);
+			VarInts.putSigned(buffer, frame.y[i] - previousY[i]);
+			previousX[i] = frame.x[i];
+			previousY[i] = frame.y[i];
+		}
+		if (hasSizes) {
+			for (int i = 0; i < count; i++) {
+				VarInts.putUnsigned(buffer, frame.size[i]);
+			}
+			previousCount = count;
+		}
+		buffer.putInt(start, buffer.position() - start - Integer.BYTES);
+	}
+
+	private void map(long position, long minBytes) throws IOException {
+		mappedStart = position;
+		buffer = channel.map(MapMode.READ_WRITE, position, Math.max(CHUNK_BYTES, minBytes));
+	}
+
+	/*
+	 * FRAME
+	 * One tick's positions, reused through the free/full queues.
+	 */
+	private static class Frame {
+
+		private int[] x = new int[0];
+		private int[] y = new int[0];
+		private int[] size = new int[0];
+		private int count;
+		private long tick;
+
+		void copyFrom(BallWorld world) {
+			count = world.getCount();
+			if (x.length < count) {
+				x = new int[count];
+				y = new int[count];
+				size = new int[count];
+			}
+			world.copyColumns(x, y, size);
+			tick = world.getTick();
+		}
+
+	}
+
+}
@@ -0,0 +1,86 @@
+/**
+ * VarInts writes and reads the variable-length integers used by the
+ * trajectory files:
+ * 		- 7 bits per byte, low bits first; the top bit means "more".
+ * 		- Signed values are zigzag-encoded first (0, -1, 1, -2, ... become
+ * 			0, 1, 2, 3, ...), so small deltas of either sign take one byte.
+ * 
+ * STYLE NOTES
+ * Keeps the conventions of the other engine classes; package-private
+ * static helpers only.
+ */
+package com.github.atollysis.ballbounceprogram.engine;
+
+import java.nio.ByteBuffer;
+
+class VarInts {
+
+	/*
+	 * FIELDS
+	 */
+	static final int MAX_INT_BYTES = 5;
+	static final int MAX_LONG_BYTES = 10;
+	private static final int PAYLOAD_BITS = 7;
+	private static final int PAYLOAD_MASK = 0x7F;
+	private static final int MORE = 0x80;
+
+	/*
+	 * CONSTRUCTOR
+	 */
+	private VarInts() {
+	}
+
+	/*
+	 * WRITE
+	 */
+	static void putSigned(ByteBuffer buffer, int value) {
+		putUnsigned(buffer, (value << 1) ^ (value >> (Integer.SIZE - 1)));
+	}
+
+	static void putUnsigned(ByteBuffer buffer, int value) {
+		while ((value & ~PAYLOAD_MASK) != 0) {
+			buffer.put((byte) ((value & PAYLOAD_MASK) | MORE));
+			value >>>= PAYLOAD_BITS;
+		}
+		buffer.put((byte) value);
+	}
+
+	static void putUnsigned(ByteBuffer buffer, long value) {
+		while ((value & ~PAYLOAD_MASK) != 0) {
+			buffer.put((byte) ((value & PAYLOAD_MASK) | MORE));
+			value >>>= PAYLOAD_BITS;
+		}
+		buffer.put((byte) value);
+	}
+
+	/*
+	 * READ
+	 */
+	static int getSigned(ByteBuffer buffer) {
+		var value = getUnsignedInt(buffer);
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	static int getUnsignedInt(ByteBuffer buffer) {
+		var value = 0;
+		for (int shift = 0; ; shift += PAYLOAD_BITS) {
+			var b = buffer.get();
+			value |= (b & PAYLOAD_MASK) << shift;
+			if ((b & MORE) == 0) {
+				return value;
+			}
+		}
+	}
+
+	static long getUnsignedLong(ByteBuffer buffer) {
+		var value = 0L;
+		for (int shift = 0; ; shift += PAYLOAD_BITS) {
+			var b = buffer.get();
+			value |= (long) (b & PAYLOAD_MASK) << shift;
+			if ((b & MORE) == 0) {
+				return value;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,78 @@
+/**
+ * VectorKernel is the SIMD version of BallWorld's move loop, on the
+ * (incubating) Vector API:
+ * 		- Loads one lane of balls per column (x, y, dX, dY, size).
+ * 		- Builds the "out of bounds" test of Ball.outOfBounds() as a
+ * 			mask instead of a branch, and negates dX/dY only in the
+ * 			masked lanes.
+ * 		- Adds the directions and stores the lanes back.
+ * It only handles whole lanes; BallWorld moves the remaining balls with
+ * its scalar loop, which gives exactly the same results.
+ * 
+ * This class is the only one touching jdk.incubator.vector, and is only
+ * loaded when BallWorld found that module in the boot layer (the JVM
+ * needs "--add-modules jdk.incubator.vector").
+ * 
+ * STYLE NOTES
+ * Keeps the conventions of the other engine classes; package-private,
+ * since only BallWorld uses it.
+ */
+package com.github.atollysis.ballbounceprogram.engine;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+class VectorKernel {
+
+	/*
+	 * FIELDS
+	 */
+	private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+	/*
+	 * CONSTRUCTOR
+	 */
+	private VectorKernel() {
+	}
+
+	/*
+	 * SERVICE METHOD
+	 */
+	/**
+	 * Moves the whole lanes of balls in [from, to) and returns the index
+	 * of the first ball left for the scalar loop.
+	 */
+	static int moveRange(
+			int[] x, int[] y, int[] dX, int[] dY, int[] size,
+			int from, int to, int xLimit, int yLimit, boolean centered) {
+		var zero = IntVector.zero(SPECIES);
+		var i = from;
+		for (var upper = from + SPECIES.loopBound(to - from); i < upper; i += SPECIES.length()) {
+			var s = IntVector.fromArray(SPECIES, size, i);
+			var lo = centered ? s : zero;
+
+			var px = IntVector.fromArray(SPECIES, x, i);
+			var dx = IntVector.fromArray(SPECIES, dX, i);
+			dx = dx.lanewise(VectorOperators.NEG, outOfBounds(px.add(dx), s, lo, xLimit));
+			px.add(dx).intoArray(x, i);
+			dx.intoArray(dX, i);
+
+			var py = IntVector.fromArray(SPECIES, y, i);
+			var dy = IntVector.fromArray(SPECIES, dY, i);
+			dy = dy.lanewise(VectorOperators.NEG, outOfBounds(py.add(dy), s, lo, yLimit));
+			py.add(dy).intoArray(y, i);
+			dy.intoArray(dY, i);
+		}
+		return i;
+	}
+
+	// Helper
+	private static VectorMask<Integer> outOfBounds(
+			IntVector next, IntVector size, IntVector lo, int limit) {
+		return next.add(size).compare(VectorOperators.GE, limit)
+				.or(next.compare(VectorOperators.LE, lo));
+	}
+
+}
@@ -0,0 +1,161 @@
+/**
+ * WorldSnapshot is a read-only copy of what a View needs from a
+ * BallWorld (positions and sizes) at one tick:
+ * 		- Filled by SnapshotBuffer on the producing thread, then handed
+ * 			over whole; a View never sees a half-written snapshot.
+ * 		- Its arrays are reused between ticks and only grow.
+ * 		- It also carries the positions of the tick before, so a View
+ * 			can interpolate any ball it draws without copying anything.
+ * 		- When indexing is on (see SnapshotBuffer.setIndexed()), it also
+ * 			carries a SpatialGrid of the balls and the margin to widen
+ * 			queries by, so the View can skip the balls it does not show.
+ * 
+ * STYLE NOTES
+ * Keeps the conventions of the other engine classes.
+ */
+package com.github.atollysis.ballbounceprogram.engine;
+
+public class WorldSnapshot {
+
+	/*
+	 * FIELDS
+	 */
+	private int[] x = new int[0];
+	private int[] y = new int[0];
+	private int[] size = new int[0];
+	private int[] previousX = new int[0];
+	private int[] previousY = new int[0];
+	private int count;
+	private Anchor anchor = Anchor.TOP_LEFT;
+	private long tick;
+	private long nanos;
+	private SpatialGrid grid;
+	private int gridMargin;
+	// Order in which snapshots were published (0 = never)
+	private long sequence;
+
+	/*
+	 * COPY
+	 */
+	void copyFrom(BallWorld world, long sequence) {
+		count = world.getCount();
+		if (x.length < count) {
+			x = new int[count];
+			y = new int[count];
+			size = new int[count];
+		}
+		world.copyColumns(x, y, size);
+		anchor = world.getAnchor();
+		tick = world.getTick();
+		nanos = System.nanoTime();
+		this.sequence = sequence;
+	}
+
+	void copyFrom(
+			int count, int[] x, int[] y, int[] size,
+			Anchor anchor, long tick, long sequence) {
+		this.count = count;
+		if (this.x.length < count) {
+			this.x = new int[count];
+			this.y = new int[count];
+			this.size = new int[count];
+		}
+		System.arraycopy(x, 0, this.x, 0, count);
+		System.arraycopy(y, 0, this.y, 0, count);
+		System.arraycopy(size, 0, this.size, 0, count);
+		this.anchor = anchor;
+		this.tick = tick;
+		nanos = System.nanoTime();
+		this.sequence = sequence;
+	}
+
+	/**
+	 * Keeps the positions of the snapshot published before this one.
+	 * Without a matching one (the first tick, skipped ticks, or balls
+	 * added or removed) they are this snapshot's own: no interpolation.
+	 */
+	void keepPrevious(WorldSnapshot last) {
+		if (previousX.length < count) {
+			previousX = new int[count];
+			previousY = new int[count];
+		}
+		var from = last != null && last.count == count && last.tick == tick - 1 ? last : this;
+		System.arraycopy(from.x, 0, previousX, 0, count);
+		System.arraycopy(from.y, 0, previousY, 0, count);
+	}
+
+	/*
+	 * INDEX (writer side)
+	 */
+	void buildGrid(SpatialGrid grid) {
+		grid.build(x, y, size, count);
+	}
+
+	void setGrid(SpatialGrid grid, int gridMargin) {
+		this.grid = grid;
+		this.gridMargin = gridMargin;
+	}
+
+	/*
+	 * GETTERS
+	 */
+	public int getCount() {
+		return count;
+	}
+
+	public int getX(int ball) {
+		return x[ball];
+	}
+
+	public int getY(int ball) {
+		return y[ball];
+	}
+
+	public int getSize(int ball) {
+		return size[ball];
+	}
+
+	/**
+	 * The ball's x at the tick before (see keepPrevious()).
+	 */
+	public int getPreviousX(int ball) {
+		return previousX[ball];
+	}
+
+	public int getPreviousY(int ball) {
+		return previousY[ball];
+	}
+
+	/**
+	 * An index of this snapshot's balls, or null when indexing is off.
+	 * It may have been built a few ticks earlier: widen queries by
+	 * getGridMargin() to find every ball that reaches into a region.
+	 */
+	public SpatialGrid getGrid() {
+		return grid;
+	}
+
+	public int getGridMargin() {
+		return gridMargin;
+	}
+
+	public Anchor getAnchor() {
+		return anchor;
+	}
+
+	public long getTick() {
+		return tick;
+	}
+
+	/**
+	 * System.nanoTime() when the snapshot was taken.
+	 */
+	public long getNanos() {
+		return nanos;
+	}
+
+	long getSequence() {
+		return sequence;
+	}
+
+}